@@ -0,0 +1,69 @@
+/**
+ *
+ *    Launcher of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn;
+
+import java.util.*;
+
+
+public class Main
+// Launcher of the simulations:
+//
+//    java -jar single-hop-rn.jar simulation [arguments of the simulation]
+//
+// The simulations are registered in the table SIMULATIONS by their names.
+// Their arguments and the results are described in rn.core.Launcher.
+{
+    
+    interface Simulation {
+        void main(String[] args) throws Exception;
+    }
+    
+    static final Map<String,Simulation> SIMULATIONS=new LinkedHashMap<String,Simulation>();
+    
+    static {
+        SIMULATIONS.put("mergesort", rn.mergesort.RadioNetwork::main);
+        SIMULATIONS.put("longsort", rn.longsort.LongSort::main);
+        SIMULATIONS.put("correction", rn.correction.CorrectionRN::main);
+        SIMULATIONS.put("countingrank", rn.countingrank.CountingRank::main);
+        SIMULATIONS.put("trace", rn.core.TraceReader::main); // prints a trace (see rn.core.TraceSink)
+    }
+    
+    public static void main(String[] args)
+    throws Exception
+    {
+        if(args.length==0 || !SIMULATIONS.containsKey(args[0])) {
+            System.out.println("PROGRAM SHOULD BE INVOKED AS FOLLOWS:");
+            System.out.println("   java -jar single-hop-rn.jar simulation [arguments of the simulation]");
+            System.out.println("       simulation -- one of: "+String.join(", ", SIMULATIONS.keySet()));
+            System.exit(-1);
+        }
+        
+        SIMULATIONS.get(args[0]).main(Arrays.copyOfRange(args, 1, args.length));
+    }
+    
+}
@@ -0,0 +1,55 @@
+/**
+ *
+ *    Common classes of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.core;
+
+
+public class Energy
+// energetic cost of a station: the number of time slots in which
+// the station was listening (le) and sending (se)
+{
+    public int le; // energy for listening
+    public int se; // energy for sending
+    
+    
+    public static int maxLE(Energy[] s, int i1, int i2)
+    // maximal le of the stations s[i1] ... s[i2] (-1 if there are none)
+    {
+        int i, x=-1;
+        for(i=i1; i<=i2; i++) if(s[i].le>x) x=s[i].le;
+        return x;
+    }
+    
+    public static int maxSE(Energy[] s, int i1, int i2)
+    // maximal se of the stations s[i1] ... s[i2] (-1 if there are none)
+    {
+        int i, x=-1;
+        for(i=i1; i<=i2; i++) if(s[i].se>x) x=s[i].se;
+        return x;
+    }
+    
+}
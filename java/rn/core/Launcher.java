@@ -0,0 +1,207 @@
+/**
+ *
+ *    Common classes of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+package rn.core;
+
+import java.io.*;
+import java.util.*;
+
+
+public class Launcher
+// The command line shared by the simulations:
+//
+//    [-a algorithm] [-n n] [-seed seed] [-d distribution] [-reps repetitions]
+//    [options of the simulation] [-list]
+//
+// The algorithms of a simulation are registered by their names (see put())
+// and its integer options by their flags (see option()).
+// A simulation gets n, the seed, the distribution of the input and the values
+// of the options and returns the results:
+// {clock, maximal LE, maximal SE, 1 if the output is correct else 0}.
+// The results are printed as tab separated values, one line for each repetition:
+//
+//    algorithm n seed distribution options ... clock LE SE ok ms
+//
+// What the simulations print themselves goes to System.err.
+// If a simulation throws an exception, its message is printed and the program
+// exits with the status -1.
+{
+
+    public interface Simulation {
+        long[] run(int n, long seed, String distribution, int[] option) throws Exception;
+    }
+
+    public interface Check {
+        // throws IllegalArgumentException if the arguments do not fit the simulation
+        void check(String algorithm, int n, int[] option);
+    }
+
+    static class Option {
+        String flag, name, description;
+        int value, min;
+    }
+
+    final String command; // the program, printed in the usage
+    final String nDescription;
+
+    final Map<String,Simulation> algorithms=new LinkedHashMap<String,Simulation>();
+    final List<String> distributions=new ArrayList<String>();
+    final List<Option> options=new ArrayList<Option>();
+
+    String algorithm; // the default values of the arguments
+    int n;
+    Check check;
+
+
+    public Launcher(String command, int n, String nDescription) {
+        this.command=command;
+        this.n=n;
+        this.nDescription=nDescription;
+    }
+
+    public void put(String name, Simulation simulation)
+    // the first algorithm is the default one
+    {
+        if(algorithm==null) algorithm=name;
+        algorithms.put(name, simulation);
+    }
+
+    public void algorithm(String name)
+    // the default algorithm
+    {
+        algorithm=name;
+    }
+
+    public void distribution(String name)
+    // the first distribution is the default one
+    {
+        distributions.add(name);
+    }
+
+    public void option(String flag, String name, int value, int min, String description)
+    // the values of the options are passed to the simulations in the order of option()
+    {
+        Option o=new Option();
+        o.flag=flag;
+        o.name=name;
+        o.value=value;
+        o.min=min;
+        o.description=description;
+        options.add(o);
+    }
+
+    public void check(Check check) {
+        this.check=check;
+    }
+
+
+    public void main(String[] args)
+    throws Exception
+    {
+        String algorithm=this.algorithm, distribution=distributions.get(0);
+        int n=this.n, reps=1;
+        long seed=1;
+        int[] option=new int[options.size()];
+        int i,j;
+        for(j=0; j<option.length; j++) option[j]=options.get(j).value;
+
+        try {
+            for(i=0; i<args.length; i++) {
+                if(args[i].equals("-a")) algorithm=args[++i];
+                else if(args[i].equals("-n")) n=Integer.parseInt(args[++i]);
+                else if(args[i].equals("-seed")) seed=Long.parseLong(args[++i]);
+                else if(args[i].equals("-d")) distribution=args[++i];
+                else if(args[i].equals("-reps")) reps=Integer.parseInt(args[++i]);
+                else if(args[i].equals("-list")) {
+                    for(String name: algorithms.keySet()) System.out.println(name);
+                    return;
+                }
+                else {
+                    for(j=0; j<option.length && !options.get(j).flag.equals(args[i]); j++);
+                    if(j==option.length) throw new IllegalArgumentException(args[i]);
+                    option[j]=Integer.parseInt(args[++i]);
+                }
+            }
+            if(!algorithms.containsKey(algorithm))
+                throw new IllegalArgumentException("unknown algorithm: "+algorithm);
+            if(!distributions.contains(distribution))
+                throw new IllegalArgumentException("unknown distribution: "+distribution);
+            if(n<1 || reps<1)
+                throw new IllegalArgumentException("n and repetitions should be positive");
+            for(j=0; j<option.length; j++)
+                if(option[j]<options.get(j).min)
+                    throw new IllegalArgumentException(options.get(j).name+" should be at least "+options.get(j).min);
+            if(check!=null) check.check(algorithm, n, option);
+        } catch(Exception e) {
+            System.out.println(e);
+            usage();
+            System.exit(-1);
+        }
+
+        Simulation simulation=algorithms.get(algorithm);
+        PrintStream out=System.out;
+
+        out.print("algorithm\tn\tseed\tdistribution");
+        for(Option o: options) out.print("\t"+o.name);
+        out.println("\tclock\tLE\tSE\tok\tms");
+        int rep;
+        for(rep=0; rep<reps; rep++) {
+            long[] r;
+            long time=System.currentTimeMillis();
+            System.setOut(System.err);
+            try {
+                r=simulation.run(n, seed+rep, distribution, option);
+            } catch(Exception e) {
+                System.out.println(algorithm+" failed: "+e); // on System.err
+                System.exit(-1);
+                return;
+            } finally {
+                System.setOut(out);
+            }
+            time=System.currentTimeMillis()-time;
+
+            out.print(algorithm+"\t"+n+"\t"+(seed+rep)+"\t"+distribution);
+            for(j=0; j<option.length; j++) out.print("\t"+option[j]);
+            out.println("\t"+r[0]+"\t"+r[1]+"\t"+r[2]+"\t"+(r[3]==1)+"\t"+time);
+        }
+    }
+
+    void usage() {
+        String line="   "+command+" [-a algorithm] [-n n] [-seed seed] [-d distribution] [-reps repetitions]";
+        for(Option o: options) line+=" ["+o.flag+" "+o.name+"]";
+
+        System.out.println("PROGRAM SHOULD BE INVOKED AS FOLLOWS:");
+        System.out.println(line+" [-list]");
+        System.out.println("       algorithm -- one of the names printed with -list ("+algorithm+")");
+        System.out.println("       n -- "+nDescription+" ("+n+")");
+        System.out.println("       seed -- for the generator of the input, increased in each repetition (1)");
+        System.out.println("       distribution -- of the input: "+String.join(", ", distributions)+" ("+distributions.get(0)+")");
+        for(Option o: options)
+            System.out.println("       "+o.name+" -- "+o.description+" ("+o.value+")");
+        System.out.println("   THE RESULTS ARE PRINTED AS TAB SEPARATED VALUES, ONE LINE FOR EACH REPETITION.");
+    }
+
+}
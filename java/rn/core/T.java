@@ -0,0 +1,179 @@
+/**
+ *
+ *    Common classes of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+package rn.core;
+
+import java.util.*;
+
+
+public class T {
+    // auxiliary functions for the tree $T_m$ from the paper
+    
+    // The navigation in $T_m$ is read from the precomputed TreeTable of $T_m$.
+    // The tables of the recently used trees are cached (the least recently used
+    // table is dropped when there are more than TABLES tables).
+    
+    static final int TABLES=16;
+    
+    static final LinkedHashMap<Integer,TreeTable> tables=
+    new LinkedHashMap<Integer,TreeTable>(TABLES+1, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<Integer,TreeTable> e) {
+            return size()>TABLES;
+        }
+    };
+    
+    static volatile TreeTable last; // the most recently used table
+    
+    public static TreeTable table(int m)
+    // navigation table of $T_m$
+    {
+        TreeTable t=last;
+        if(t!=null && t.m==m) return t;
+        synchronized(tables) {
+            t=tables.get(m);
+            if(t==null) {
+                t=new TreeTable(m);
+                tables.put(m, t);
+            }
+        }
+        last=t;
+        return t;
+    }
+    
+    public static int power(int x, int y)
+    // x>0, y>=0
+    {
+        int z=1;
+        int k=1;
+        while (k<= y) {
+            k++;
+            z*=x;
+        }
+        return z;
+    }
+    
+    public static int height(int m)
+    // height of $T_m$
+    {
+        int k=0;
+        int x=1;
+        
+        while (x<m+1) {
+            k++;
+            x*=2;
+        }
+        return k;
+    }
+    
+    
+    public static int h(int m, int i)
+    // sequence h(m,i) from the paper
+    {
+        return table(m).h(i);
+    }
+    
+    
+    public static int g(int m, int i)
+    // the functiom g(m,i) from the paper
+    {
+        return table(m).g(i);
+    }
+    
+    public static int lStar(int m)
+    // $l^*$ from the paper
+    {
+        int i=0;
+        while (h(m,i)>2) i++;
+        return i;
+        
+    }
+    
+    public static int fullSize(int h)
+    // size of full tree of height h
+    {
+        return power(2,h)-1;
+    }
+    
+    public static int missingLeaves(int m)
+    // number of rightmost missing leaves in T_m
+    {
+        return fullSize(height(m))-m;
+    }
+    
+    
+    public static int leftSubtree(int m)
+    // size of the left subtree of T_m
+    {
+        if (m<=1) return 0;
+        // m>1
+        int ml=missingLeaves(m);
+        int h=height(m)-1; // height of left subtree
+        int s=fullSize(h); // size of full subtree
+        int l=power(2,h-1); // leaves in full subtree
+        if (ml>l) s-= (ml-l); // some missing leaves are in left subtree
+        return s;
+    }
+    
+    public static int rightSubtree(int m)
+    // size of the right subtree of T_m
+    {
+        return m-1-leftSubtree(m);
+    }
+    
+    public static int root(int m)
+    // root of T_m
+    {
+        return leftSubtree(m)+1;
+    }
+    
+    public static int l(int m, int x)
+    // left child of x in T_m
+    {
+        return table(m).l(x);
+    }
+    
+    public static int r(int m, int x)
+    // right child of x in T_m
+    {
+        return table(m).r(x);
+    }
+    
+    
+    
+    public static int p(int m, int x)
+    // preorder index of x in T_m
+    {
+        return table(m).p(x);
+    }
+    
+    
+    public static int pReverse(int m, int y)
+    // y>=1 is postorder number of node in T_m; return inorder number
+    {
+        return table(m).pReverse(y);
+    }
+    
+}
@@ -0,0 +1,83 @@
+/**
+ *
+ *    Common classes of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.core;
+
+import java.util.*;
+
+
+public class Timer<S>
+// This class is used for more efficient simulation of waking up the listeners:
+// set(s,t) schedules the station s to wake up in the time slot t
+// and pop(t) returns the stations scheduled for the slot t one by one
+{
+    static class Element<S> {
+        S station;
+        Element<S> next;
+        
+        Element(S s) {
+            station=s;
+        }
+    }
+    
+    Element<S>[] table;
+    Element<S> free; // popped elements are reused by set()
+    
+    
+    public void reset(int n) {
+        if(table==null || table.length<n) {
+            @SuppressWarnings("unchecked")
+            Element<S>[] t=(Element<S>[])new Element<?>[n];
+            table=t;
+        }
+        else Arrays.fill(table, 0, n, null);
+    }
+    
+    public void set(S s, int t) {
+        Element<S> e=free;
+        if(e==null) e=new Element<S>(s);
+        else {
+            free=e.next;
+            e.station=s;
+        }
+        e.next=table[t];
+        table[t]=e;
+    }
+    
+    public S pop(int t) {
+        Element<S> e=table[t];
+        if(e==null) return null;
+        
+        table[t]=e.next;
+        e.next=free;
+        free=e;
+        S s=e.station;
+        e.station=null;
+        return s;
+    }
+    
+}
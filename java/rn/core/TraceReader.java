@@ -0,0 +1,146 @@
+/**
+ *
+ *    Reader of the traces of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.core;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+
+public class TraceReader
+// Prints the trace written by TraceSink, one time slot per line:
+//
+//    channel <TAB> clock <TAB> id:message ... <TAB> ids of the listeners
+//
+// or, with -summary, the numbers of the channels, the time slots with
+// the senders, the collisions (more than one sender) and the messages received.
+{
+    FileChannel file;
+    ByteBuffer buffer=ByteBuffer.allocateDirect(1<<20);
+    
+    public TraceReader(Path name) throws IOException {
+        file=FileChannel.open(name, StandardOpenOption.READ);
+        buffer.flip();
+        for(int i=0; i<TraceSink.HEADER.length; i++)
+            if(getByte()!=TraceSink.HEADER[i]) throw new IOException(name+" is not a trace");
+    }
+    
+    boolean fill() throws IOException {
+        buffer.compact();
+        int r=file.read(buffer);
+        buffer.flip();
+        return r>0;
+    }
+    
+    boolean atEnd() throws IOException {
+        return !buffer.hasRemaining() && !fill();
+    }
+    
+    int getByte() throws IOException {
+        if(atEnd()) throw new EOFException();
+        return buffer.get();
+    }
+    
+    long getVarint() throws IOException {
+        long x=0;
+        int shift=0, b;
+        do {
+            b=getByte();
+            x|=(long) (b & 0x7F)<<shift;
+            shift+=7;
+        } while((b & 0x80)!=0);
+        return x;
+    }
+    
+    long getZigzag() throws IOException {
+        long x=getVarint();
+        return (x>>>1)^-(x & 1);
+    }
+    
+    
+    public static void main(String[] args) throws IOException {
+        boolean summary=false;
+        String name=null;
+        for(String a : args) {
+            if(a.equals("-summary")) summary=true;
+            else name=a;
+        }
+        if(name==null) {
+            System.err.println("usage: java -jar single-hop-rn.jar trace [-summary] file");
+            System.exit(1);
+        }
+        
+        TraceReader r=new TraceReader(Paths.get(name));
+        PrintStream out=new PrintStream(new BufferedOutputStream(System.out), false);
+        long[] clock=new long[16]; // the last time slot of each channel
+        long channels=0, slots=0, collisions=0, received=0;
+        StringBuilder line=new StringBuilder();
+        while(!r.atEnd()) {
+            int kind=r.getByte();
+            int c=(int) r.getVarint();
+            if(kind==TraceSink.BEGIN) {
+                if(c>=clock.length) clock=java.util.Arrays.copyOf(clock, 2*c);
+                clock[c]=r.getVarint();
+                channels++;
+                if(!summary) out.println("# begin "+c+" "+clock[c]);
+                continue;
+            }
+            if(kind!=TraceSink.SLOT) throw new IOException("bad record "+kind);
+            if(c>=clock.length) throw new IOException("channel "+c+" is not opened");
+            
+            clock[c]+=r.getZigzag();
+            long s=r.getVarint();
+            line.setLength(0);
+            line.append(c).append('\t').append(clock[c]).append('\t');
+            for(long i=0; i<s; i++) {
+                long id=r.getVarint(), len=r.getVarint();
+                line.append(i==0 ? "" : " ").append(id).append(":");
+                for(long j=0; j<len; j++) line.append(j==0 ? "" : ",").append(r.getZigzag());
+            }
+            long l=r.getVarint(), id=0;
+            line.append('\t');
+            for(long i=0; i<l; i++) {
+                id+=r.getZigzag();
+                line.append(i==0 ? "" : " ").append(id);
+            }
+            if(s>0) slots++;
+            if(s>1) collisions++;
+            if(s==1) received+=l;
+            if(!summary) out.println(line);
+        }
+        if(summary) {
+            out.println("channels = "+channels);
+            out.println("slots with senders = "+slots);
+            out.println("collisions = "+collisions);
+            out.println("messages received = "+received);
+        }
+        out.flush();
+    }
+    
+}
@@ -0,0 +1,232 @@
+/**
+ *
+ *    Trace of the time slots of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.core;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+
+public class TraceSink
+// Streaming trace of the time slots of the simulations.
+//
+// The trace is written only if the program is started with the property
+// rn.trace set to the name of the file, for example:
+//
+//    java -Drn.trace=run.trace -jar single-hop-rn.jar countingrank -n 100 -k 10 -m 16
+//
+// Otherwise open() returns null and the channels of the simulations
+// (the field trace) remain null, so nothing is recorded.
+// Each channel opens its own sink, numbered 1, 2, ... in the order of open().
+// The parts of a parallel simulation have their own channels and clocks
+// (see rn.mergesort.Network.part()), so they are traced as separate channels
+// and may be recorded by several threads: a sink is used by one thread at a time,
+// the complete records of its slots are appended to the file under a lock.
+// The records are encoded into a buffer and written to the file
+// with FileChannel, so the memory does not depend on the number of slots.
+// The file is read by TraceReader.
+//
+// File format: the header "RNT2" followed by the records:
+//    BEGIN ch c  - the channel ch is opened, its first time slot is c
+//    SLOT ch d  s (id len x_1 .. x_len)^s  l dl_1 .. dl_l
+//               - the time slot t+d of the channel ch, where t is the slot of
+//                 the previous record of ch, with s senders, each with its id
+//                 and message, and l listeners with the ids given by differences dl_i
+// All the numbers are varints; d, x_i and dl_i are zigzag encoded.
+{
+    public static final int BEGIN=0;
+    public static final int SLOT=1;
+    
+    static final byte[] HEADER={'R', 'N', 'T', '2'};
+    
+    // the file of the trace, if rn.trace is set (guarded by TraceSink.class)
+    static FileChannel file;
+    static ByteBuffer buffer;
+    static final List<TraceSink> sinks=new ArrayList<TraceSink>(); // the opened channels
+    
+    final int channel;
+    ByteBuffer record=ByteBuffer.allocate(64); // the record being encoded
+    
+    // the current time slot
+    long clock, last;
+    int senders, values, listeners;
+    int[] sender=new int[4], length=new int[4], listener=new int[16];
+    long[] value=new long[16];
+    
+    
+    public static synchronized TraceSink open(long clock)
+    // the trace of a new channel with the first time slot clock, or null
+    {
+        if(file==null) {
+            String name=System.getProperty("rn.trace");
+            if(name==null) return null;
+            try {
+                file=FileChannel.open(Paths.get(name), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer=ByteBuffer.allocateDirect(1<<20);
+            buffer.put(HEADER);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> close()));
+        }
+        TraceSink sink=new TraceSink(sinks.size()+1, clock);
+        sinks.add(sink);
+        return sink;
+    }
+    
+    TraceSink(int channel, long c) {
+        this.channel=channel;
+        clock=last=c;
+        record.put((byte) BEGIN);
+        putVarint(channel);
+        putVarint(c);
+        append(record);
+    }
+    
+    
+    public void send(int id, long x) {
+        if(senders==sender.length) {
+            sender=Arrays.copyOf(sender, 2*senders);
+            length=Arrays.copyOf(length, 2*senders);
+        }
+        sender[senders]=id;
+        length[senders]=1;
+        senders++;
+        put(x);
+    }
+    
+    public void send(int id, long x0, long x1, long x2, long x3) {
+        send(id, x0);
+        length[senders-1]=4;
+        put(x1);
+        put(x2);
+        put(x3);
+    }
+    
+    public void listen(int id) {
+        if(listeners==listener.length) listener=Arrays.copyOf(listener, 2*listeners);
+        listener[listeners++]=id;
+    }
+    
+    public void slot()
+    // end of the current time slot
+    {
+        endSlot();
+        clock++;
+    }
+    
+    static synchronized void close()
+    // ends the current slots of the channels and closes the file
+    {
+        try {
+            for(TraceSink s : sinks) s.endSlot();
+            flush();
+            file.close();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    
+    void put(long x) {
+        if(values==value.length) value=Arrays.copyOf(value, 2*values);
+        value[values++]=x;
+    }
+    
+    void endSlot() {
+        if(senders==0 && listeners==0) return;
+        
+        int i,j,v=0;
+        record.put((byte) SLOT);
+        putVarint(channel);
+        putVarint(zigzag(clock-last));
+        putVarint(senders);
+        for(i=0; i<senders; i++) {
+            putVarint(sender[i]);
+            putVarint(length[i]);
+            for(j=0; j<length[i]; j++) putVarint(zigzag(value[v++]));
+        }
+        putVarint(listeners);
+        int previous=0;
+        for(i=0; i<listeners; i++) {
+            putVarint(zigzag((long) listener[i]-previous));
+            previous=listener[i];
+        }
+        append(record);
+        
+        last=clock;
+        senders=values=listeners=0;
+    }
+    
+    static synchronized void append(ByteBuffer record)
+    // appends the encoded record to the file and clears it
+    {
+        record.flip();
+        if(buffer.remaining()<record.remaining()) flush();
+        if(buffer.remaining()<record.remaining()) {
+            while(record.hasRemaining()) write(record);
+        }
+        else buffer.put(record);
+        record.clear();
+    }
+    
+    static long zigzag(long x) {
+        return (x<<1)^(x>>63);
+    }
+    
+    void putVarint(long x) {
+        if(record.remaining()<10) {
+            ByteBuffer r=ByteBuffer.allocate(2*record.capacity());
+            record.flip();
+            record=r.put(record);
+        }
+        while((x & ~0x7FL)!=0) {
+            record.put((byte) ((x & 0x7F)|0x80));
+            x>>>=7;
+        }
+        record.put((byte) x);
+    }
+    
+    static void flush() {
+        buffer.flip();
+        while(buffer.hasRemaining()) write(buffer);
+        buffer.clear();
+    }
+    
+    static void write(ByteBuffer b) {
+        try {
+            file.write(b);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+}
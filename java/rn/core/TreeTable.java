@@ -0,0 +1,154 @@
+/**
+ *
+ *    Common classes of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+package rn.core;
+
+
+public class TreeTable
+// Precomputed navigation in the tree $T_m$ (see T.table(m)).
+// The nodes are identified by their inorder numbers x=1..m (0 is NIL).
+// Since $T_m$ is a complete binary tree, its preorder indexes (as in binary heap)
+// are also 1..m and the children of the node with index y have indexes 2y and 2y+1.
+{
+    public final int m;
+    
+    final int[] hs; // hs[i]==h(m,i) until the sequence becomes constant
+    final int[] gs; // gs[i]==g(m,i)
+    
+    // the tables below are computed when the tree is navigated for the first time
+    private volatile int[] pre; // pre[x]: preorder index of x, pre[0]==0
+    private volatile int[] in;  // in[y]: inorder number of the node with preorder index y
+    
+    TreeTable(int m) {
+        this.m=m;
+        
+        int n=1, x=m;
+        while(T.height(x)!=x) {
+            x=T.height(x);
+            n++;
+        }
+        hs=new int[n];
+        gs=new int[n];
+        hs[0]=m;
+        for(int i=1; i<n; i++) hs[i]=T.height(hs[i-1]);
+        for(int i=0; i<n; i++)
+            if(hs[i]>0) gs[i]=(m+hs[i]-1)/hs[i];
+    }
+    
+    
+    public int h(int i)
+    // h(m,i) from the paper
+    {
+        return (i<hs.length)? hs[i] : hs[hs.length-1];
+    }
+    
+    public int g(int i)
+    // g(m,i) from the paper
+    {
+        return (i<gs.length)? gs[i] : gs[gs.length-1];
+    }
+    
+    
+    public int l(int x)
+    // left child of x
+    {
+        int y=2*preorder()[x];
+        if(y<=m) return inorder()[y];
+        else return 0;
+    }
+    
+    public int r(int x)
+    // right child of x
+    {
+        int y=2*preorder()[x]+1;
+        if(y<=m) return inorder()[y];
+        else return 0;
+    }
+    
+    public int p(int x)
+    // preorder index of x
+    {
+        return preorder()[x];
+    }
+    
+    public int pReverse(int y)
+    // inorder number of the node with preorder index y
+    {
+        return inorder()[y];
+    }
+    
+    
+    private int[] preorder() {
+        int[] t=pre;
+        if(t==null) {
+            build();
+            t=pre;
+        }
+        return t;
+    }
+    
+    private int[] inorder() {
+        int[] t=in;
+        if(t==null) {
+            build();
+            t=in;
+        }
+        return t;
+    }
+    
+    private synchronized void build()
+    // inorder traversal of the binary heap 1..m
+    {
+        if(in!=null) return;
+        int[] pre1=new int[m+1];
+        int[] in1=new int[m+1];
+        
+        int x=0, y=1;
+        if(m>0) while(2*y<=m) y=2*y; // leftmost node
+        while(y>0) {
+            x++;
+            pre1[x]=y;
+            in1[y]=x;
+            if(2*y+1<=m) {
+                // leftmost node of the right subtree
+                y=2*y+1;
+                while(2*y<=m) y=2*y;
+            }
+            else {
+                // go up to the first ancestor having y in its left subtree
+                while(y%2==1) y=y/2;
+                y=y/2;
+            }
+        }
+        
+        pre=pre1;
+        in=in1;
+    }
+    
+}
+
+
+
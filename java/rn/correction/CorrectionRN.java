@@ -32,30 +32,39 @@
  *    FCT 2009
  *
  *
- * Compile the program with:
+ * Build the program with:
  *
- *    javac CorrectionRN.java
+ *    mvn package
  *
  * Run the program with:
  *
- *    java CorrectionRN n k [seed]
+ *    java -jar target/single-hop-rn.jar correction -n n -k k [-seed seed] [-reps repetitions]
  *
  * where:
  *    n - the length of the sequence (number of stations)
  *    k - number of changes
  *    seed - for random number generator used for generating the input 
+ *    repetitions - number of the runs, with the seeds seed, seed+1, ...
+ * The results are printed as tab separated values.
  */
 
 
 
 
+package rn.correction;
+
 import java.util.*;
 
+import rn.core.Energy;
+import rn.core.Launcher;
+import rn.core.TraceSink;
+import rn.core.Timer;
+
 public class CorrectionRN{
 
     static final int NIL=-1;
 
-    Timer timer; // global timer
+    Timer<Station> timer; // global timer
     
     Channel channel;
 
@@ -67,14 +76,17 @@ public class CorrectionRN{
 
     public CorrectionRN(int n)
     {
-	timer = new Timer();
+	timer = new Timer<Station>();
 
 
 
 	channel= new Channel();
+	channel.trace=TraceSink.open(clock);
         s = new Station[n];
-        for(int i=0; i<s.length; i++) 
+        for(int i=0; i<s.length; i++) {
 	    s[i]=new Station();
+	    s[i].id=i;
+	}
     }
 
 
@@ -85,11 +97,8 @@ public class CorrectionRN{
     }
 
 
-class Station{
+class Station extends Energy{
 
-    int le;
-    int se;
-    
 
     // variables used by real stations only
     int oldKey;
@@ -112,6 +121,8 @@ class Station{
     int rworker;
     int iworker;
 
+    int id; // the number of the real station (for the trace)
+
     public Station()
     {
       
@@ -121,10 +132,12 @@ class Station{
     {
 	se++;
 	c.broadcast(msg);
+	if(c.trace!=null) c.trace.send(id, msg);
     }
 
     int listen(Channel c)
     {
+	if(c.trace!=null) c.trace.listen(id);
 	le++;
 	return c.receive();
     }
@@ -158,6 +171,8 @@ class VirtualStation extends Station{
 class Channel{
     int message;
 
+    TraceSink trace; // the trace of the time slots, null if not traced
+
 
     public Channel()
     {
@@ -166,6 +181,7 @@ class Channel{
 
     void clear()
     {
+	if(trace!=null) trace.slot();
 	message=NIL;
     }
 
@@ -188,44 +204,6 @@ class Channel{
 
 
 
-// This class is used for more efficient simulation of waking up the listeners
-class Timer{
-    class Element{
-	Station station;
-	Element next;
-	public Element( Station s)
-	{
-	    station=s;
-	}
-    }
-
-    Element[] table;
-
-
-
-    void reset(int n)
-    {
-	table = new Element[n];
-    }
-
-    void set(Station s, int t)
-    {
-	// if(t<0 || t>= table.length) return;
-	Element e= new Element(s);
-	e.next=table[t];
-        table[t]=e;
-    }
-
-
-    Station pop(int t)
-    {
-	if(table[t]==null) return null;
-
-	Station s= table[t].station;
-        table[t]=table[t].next;
-        return s;
-    }
-};
 
 
 
@@ -812,49 +790,40 @@ class Timer{
     }
 
     public static void main(String[] args)
+	throws Exception
+	// the command line (see rn.core.Launcher):
+	//    [-n n] [-seed seed] [-reps repetitions] [-k changes] [-list]
     {
-	try
-	    {
-		for(int i=0; i<args.length; i++)
-		    System.out.println("args["+i+"]= "+args[i]);
-
-		if(args.length!= 3 && args.length!=2) 
-		    throw new Exception(
-					"Run the program with:\n"+
-					"\n"+
-					"    java CorrectionRN n k [seed]\n"+
-					"\n"+
-					"where:\n"+
-					"    n - the length of the sequence (number of stations)\n"+
-					"    k - number of changes\n"+
-					"    seed - for random number generator used for generating the input\n"+
-					"For example:\n"+
-					"    java CorrectionRN 1000 100\n" 
-					);
-
-		int n=Integer.parseInt(args[0]);
-		System.out.println("n = "+n);
-
-		int k=Integer.parseInt(args[1]);
-		System.out.println("k = "+k);
-
-		long seed= args.length==3 ? Long.parseLong(args[2]): System.currentTimeMillis();
-		System.out.println("seed = "+seed);
-
+	Launcher launcher= new Launcher("java rn.correction.CorrectionRN", 1000,
+					"the length of the sequence (number of stations)");
+	launcher.distribution("random");
+	launcher.option("-k", "changes", 100, 1, "number of changes, less than n");
+	launcher.check((algorithm, n, option) -> {
+		// for k = n the correction is the standard sorting (see correction())
+		if(option[0]>=n)
+		    throw new IllegalArgumentException("k = "+option[0]+" should be less than n = "+n);
+	    });
+
+	launcher.put("Correction", (n, seed, distribution, option) -> {
 		CorrectionRN rn= new CorrectionRN(n);
 
-		rn.generateInput(seed,k);
+		rn.generateInput(seed,option[0]);
 
 		rn.correction();
 
-		rn.testOutput();
+		boolean ok= true;
+		try { rn.testOutput(); }
+		catch(Exception e)
+		    {
+			System.out.println(e);
+			ok= false;
+		    }
 
 		rn.printCosts();
-	    }
-	catch(Exception e)
-	    {
-		System.out.println(e);
-	    }
+		return new long[] {rn.clock, Energy.maxLE(rn.s, 0, n-1), Energy.maxSE(rn.s, 0, n-1), ok? 1:0};
+	    });
+
+	launcher.main(args);
     }
 
 };
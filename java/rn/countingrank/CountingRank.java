@@ -0,0 +1,134 @@
+/**
+ *
+ *    Naive simulation of counting-sort in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2006  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+/**
+ *
+ * This program is a naive simulation of the
+ * algorithms
+ * described in the paper:
+ *
+ *    M.Gebala, M.Kik "Counting sort and Routing in a Single Hop Radio Network."
+ *    ALGOSENSORS 2007
+ *
+ * Note that it is sequential (not optimized) simulation and may be very slow
+ * for large input size.
+ *
+ */
+
+
+package rn.countingrank;
+
+import rn.core.Launcher;
+
+public class CountingRank{
+
+    
+    public static void main(String[] args)
+	throws Exception
+	// the command line (see rn.core.Launcher):
+	//    [-a algorithm] [-n p] [-seed seed] [-reps repetitions] [-k max_s] [-m m] [-list]
+    {
+	Launcher launcher= new Launcher("java rn.countingrank.CountingRank", 100, "number $p$ of stations");
+	launcher.distribution("random");
+	launcher.option("-k", "max_s", 10, 0, "maximal number of keys (packets) in single station");
+	launcher.option("-m", "m", 16, 1, "number of bits in each key (the routing uses log2(p) bits)");
+	launcher.check((algorithm, p, option) -> {
+		if(option[1]>63) throw new IllegalArgumentException("Too many bits in key: "+option[1]);
+	    });
+
+	for(String algorithm: new String[] {"CountingRank", "CompressedCountingRank",
+					    "RoutePackets", "AcceleratedRouting"})
+	    launcher.put(algorithm, (p, seed, distribution, option) -> run(algorithm, p, seed, option[0], option[1]));
+
+	launcher.main(args);
+    }
+
+    static long[] run(String algorithm, int p, long seed, int max_s, int m)
+	throws Exception
+	// the results of the algorithm (see rn.core.Launcher);
+	// the simulation is compared with the theoretical upper bounds on the time and energetic cost
+    {
+	boolean routing= algorithm.equals("RoutePackets") || algorithm.equals("AcceleratedRouting");
+	RadioNetwork rn=new RadioNetwork(p, routing? Key.log2(p) : m);
+	rn.generateInput(seed, max_s, routing);
+	System.out.println("rn.m ="+rn.m);
+	System.out.println("rn.n() = "+rn.n());
+	System.out.println("rn.r() = "+rn.r());
+	System.out.println("rn.a.length ="+rn.a.length);
+	System.out.println("rn.maxS() ="+rn.maxS());
+	System.out.println("rn.maxR() ="+rn.maxR());
+
+	for(int i=0; i<rn.a.length; i++) rn.a[i].prepare();
+
+	System.out.println("...");
+	if(algorithm.equals("RoutePackets")) rn.RoutePackets(rn.a);
+	else if(algorithm.equals("AcceleratedRouting")) rn.AcceleratedRouting(rn.a);
+	else if(algorithm.equals("CompressedCountingRank")) rn.CompressedCountingRank(rn.a, rn.m);
+	else rn.CountingRank(rn.a, rn.m);
+
+	boolean ok= true;
+	try {
+	    if(routing) rn.testAfterRouting(rn.a);
+	    else rn.testCountingRank(rn.a);
+	}
+	catch(Exception e)
+	    {
+		System.out.println(e);
+		ok= false;
+	    }
+
+	if(algorithm.equals("RoutePackets"))
+	    {
+		System.out.println("rn.clock ="+rn.clock+"  rn.RoutePacketsTime() = "+rn.RoutePacketsTime());
+		System.out.println("rn.maxSE() ="+rn.maxSE()+"  rn.RoutePacketsSE() = "+rn.RoutePacketsSE());
+		System.out.println("rn.maxLE() ="+rn.maxLE()+"  rn.RoutePacketsLE() = "+rn.RoutePacketsLE());
+	    }
+	else if(algorithm.equals("AcceleratedRouting"))
+	    {
+		System.out.println("rn.clock ="+rn.clock+"  rn.AcceleratedRoutingTime() = "+rn.AcceleratedRoutingTime());
+		System.out.println("rn.maxSE() ="+rn.maxSE()+"  rn.AcceleratedRoutingSE() = "+rn.AcceleratedRoutingSE());
+		System.out.println("rn.maxLE() ="+rn.maxLE()+"  rn.AcceleratedRoutingLE() = "+rn.AcceleratedRoutingLE());
+	    }
+	else if(algorithm.equals("CompressedCountingRank"))
+	    {
+		System.out.println("rn.clock ="+rn.clock+"  rn.CompressedCountingRankTime() = "+rn.CompressedCountingRankTime());
+		System.out.println("rn.maxSE() ="+rn.maxSE()+"  rn.CompressedCountingRankSE() = "+rn.CompressedCountingRankSE());
+		System.out.println("rn.maxLE() ="+rn.maxLE()+"  rn.CompressedCountingRankLE() = "+rn.CompressedCountingRankLE());
+	    }
+	else
+	    {
+		System.out.println("rn.clock ="+rn.clock+"  rn.CountingRankTime() = "+rn.CountingRankTime());
+		System.out.println("rn.maxSE() ="+rn.maxSE()+"  rn.CountingRankSE() = "+rn.CountingRankSE());
+		System.out.println("rn.maxLE() ="+rn.maxLE()+"  rn.CountingRankLE() = "+rn.CountingRankLE());
+		System.out.println("batched regrouping, at most "+rn.frameWidth()+" ranks in a frame:");
+		System.out.println("rn.batchedTime() ="+rn.batchedTime()+"  rn.CountingRankTime() = "+rn.CountingRankTime()+
+				   "  ("+(rn.clock-rn.batchedTime())+" slots less than rn.clock)");
+		System.out.println("rn.maxBatchedSE() ="+rn.maxBatchedSE()+"  rn.CountingRankSE() = "+rn.CountingRankSE());
+		System.out.println("rn.maxBatchedLE() ="+rn.maxBatchedLE()+"  rn.CountingRankLE() = "+rn.CountingRankLE());
+	    }
+
+	return new long[] {rn.clock, rn.maxLE(), rn.maxSE(), ok? 1:0};
+    }
+};
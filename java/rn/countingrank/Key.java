@@ -0,0 +1,62 @@
+/**
+ *
+ *    Naive simulation of counting-sort in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2006  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.countingrank;
+
+
+class Key{
+
+    public static int bit(int i, long key)
+    {
+	return (int) ((key>>i)&1L);
+    }
+
+
+    public static long mask(int m)
+    {
+	long mask=0, bit=1;
+        int i;
+        for(i=0; i<m; i++) mask=mask|bit<<i;
+        return mask;
+    }
+
+
+    public static int log2(long x)
+	// return minimal l such that 2^l >= x
+    {
+	int l=0;
+	int y=1; // 2^0
+	while(y<x) 
+	    { 
+		y=y+y;
+		l++;
+	    }
+
+	return l;
+    }
+
+}
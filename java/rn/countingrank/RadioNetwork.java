@@ -0,0 +1,1414 @@
+/**
+ *
+ *    Naive simulation of counting-sort in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2006  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.countingrank;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+import rn.core.Energy;
+import rn.core.TraceSink;
+
+
+class PacketLayout
+// Layout of the packets of FinishRouting in the 64-bit message:
+// the key (the destination) in the lowest keyBits bits and, if the packets
+// are tagged, the source of the packet (snd,j) -- the station in the next
+// stationBits bits and the number of the key in the next indexBits bits.
+// The receivers store the fields in separate tables of ints.
+{
+    final boolean tagged;
+    final int keyBits, stationBits, indexBits;
+
+    PacketLayout(int p, int maxS, boolean tagged)
+	throws Exception
+	// the layout for the keys 0..p-1 in p stations with at most maxS keys
+    {
+	this.tagged= tagged;
+	keyBits= Key.log2(p);
+	stationBits= tagged ? Key.log2(p) : 0;
+	indexBits= tagged ? Key.log2(maxS) : 0;
+	if(keyBits+stationBits+indexBits > 63)
+	    throw new Exception("PacketLayout: "+(keyBits+stationBits+indexBits)+" bits of the packet > 63");
+    }
+
+    long encode(long key, int snd, int j)
+	throws Exception
+    {
+	if( (key>>>keyBits) != 0 ) throw new Exception("PacketLayout: key "+key+" has more than "+keyBits+" bits");
+	if(!tagged) return key;
+	return key | (long) snd<<keyBits | (long) j<<(keyBits+stationBits);
+    }
+
+    int key(long packet)
+    {
+	return (int) (packet & Key.mask(keyBits));
+    }
+
+    int station(long packet)
+    {
+	return (int) ((packet>>>keyBits) & Key.mask(stationBits));
+    }
+
+    int index(long packet)
+    {
+	return (int) ((packet>>>(keyBits+stationBits)) & Key.mask(indexBits));
+    }
+
+}
+
+
+
+class Channel{
+    public static final long NIL=-1;
+    public static final long COLLISION=-2;
+
+    public long message;
+
+    TraceSink trace; // the trace of the time slots, null if not traced
+
+    // the frame of the current time slot: the slots of the regrouping phase
+    // batched into one frame are counted once (see RadioNetwork.nextSlot(boolean))
+    int frame;
+
+    // the stations that sent or received in the current time slot
+    // (used by the simulation only, to reset only them in nextSlot)
+    Station[] users= new Station[16];
+    int usersCount;
+
+    void use(Station s) {
+        if(s.used) return;
+        s.used= true;
+        if(usersCount==users.length) users= Arrays.copyOf(users, 2*usersCount);
+        users[usersCount++]= s;
+    }
+
+
+    public Channel() {
+        clean();
+    }
+
+    void clean() {
+        if(trace!=null) trace.slot();
+        message=NIL;
+    }
+
+    void broadcast(long m) 
+	throws Exception
+    {
+        if(message == NIL)
+            message=m;
+        else
+            // message= LongSort.COLLISION;
+	    throw new Exception("COLLISION -- messages: "+ message +" with "+ m);
+
+    }
+
+}
+
+
+
+class Station extends Energy{
+
+    // INPUT AND OUTPUT VARIABLES
+    long[] key; // table of keys stored in the station (s_i = a[i].key.length)
+    int[] rank; // global rank
+    boolean[] last;
+    boolean[] first;
+    int n; // total number of keys (to be computed in the Init procedure)
+
+    // AUXILIARY REPLACEMENT VARIABLES USED IN ACCELERATED VERSIONS
+    long[] key1;
+    int[] rank1; 
+    boolean[] last1;
+    boolean[] first1;
+    int n1;      
+
+
+    int[]  gs;    // size of current group
+    int[]  bg;    // number of elements ranked before current group
+    int[]  rig;   // rank in current group
+    int[]  rng;   // rank in next group
+
+    // GROUPS OF THE KEYS (used by the simulation only):
+    // the keys of this station in the current group of the key j are
+    // gfirst[j] ... glast[j] (they are consecutive, since the keys are sorted)
+    int[]  gfirst;
+    int[]  glast;
+
+
+    int i1,i2; // interval for routing packets to this station
+    // packets received in routing (tables of size i2-i1+1, see PacketLayout):
+    int[] receivedKey;     // the keys 
+    int[] receivedStation; // the sources (snd,j) of the tagged packets
+    int[] receivedIndex;
+    int packetsReceived; // packets received so far 
+
+
+    
+
+    long lrm; // copy of last received message 
+    // ...    
+
+
+    long sent;     //  message sent in the last time slot
+    long received; //  message received in the last time slot
+    boolean used;  //  sent or received in the current time slot (see Channel.use)
+
+    // Variables for statistics: le, se (see rn.core.Energy)
+    // and the energy counted once in each frame (see Channel.frame)
+    int batchedLE, batchedSE;
+    int leFrame=-1, seFrame=-1; // the frames of the last listening and sending
+
+    int id; // the number of the station (for the trace)
+
+
+
+    void listen(Channel c) {
+        if(c.trace!=null) c.trace.listen(id);
+        c.use(this);
+        received= c.message;
+        le++;
+        if(leFrame != c.frame) { leFrame= c.frame; batchedLE++; }
+    }
+
+    void send(Channel c, long message) 
+    throws Exception
+    {
+        c.broadcast(message);
+        if(c.trace!=null) c.trace.send(id, message);
+        c.use(this);
+        se++;
+        if(seFrame != c.frame) { seFrame= c.frame; batchedSE++; }
+	sent= message;
+    }
+
+
+
+    // FOR SET S(a_i,t) = { j | bg[a_i][j]<= t < bg[a_i][j]+gs[a_i][j] }
+ 
+    boolean inS(int t, int  j)
+	// is j in S(a_i, t), where a_i denotes this station ?
+    {
+	return (bg[j] <= t) && (t< bg[j]+gs[j]); 
+    }
+
+
+    int sizeG(int j)
+	// size of S(a_i,t) for bg[j] <= t < bg[j]+gs[j],  where a_i denotes this station
+    {
+	return glast[j]-gfirst[j]+1;
+    }
+
+    // FOR SET P(a_i,k) = { j | key[a_i][j] = k }
+
+    // RUN-LENGTH INDEX OF P (built by prepareKey1, used by the simulation only):
+    // the keys equal key1[j1] are key[startP[j1]] ... key[startP[j1]+countP[j1]-1]
+    int[] startP;
+    int[] countP;
+
+    int minP1(int j1)
+	// min P(a_i,key1[j1])
+    {
+	return startP[j1];
+    }
+
+    int maxP1(int j1)
+	// max P(a_i,key1[j1])
+    {
+	return startP[j1]+countP[j1]-1;
+    }
+
+    int sizeP1(int j1)
+	// size of P(a_i,key1[j1])
+    {
+	return countP[j1];
+    }
+
+
+    boolean caseB(int t, int j)
+	// bg[a_rcv][j]<= t = bg[a_rcv][j]+gs[a_rcv][j]-1 ?
+    {
+	return (bg[j] <= t) && (t == bg[j]+gs[j]-1);
+    }
+
+
+    public boolean sorted()
+    {
+	boolean v=true;
+	for(int i=0; v && i<key.length-1; i++) v = (key[i] <= key[i+1]);
+	return v;
+    }
+
+    public void internalSort()
+    {
+	internalSort(null, new int[256]);
+    }
+
+    public long[] internalSort(long[] buffer, int[] count)
+	// sorts the keys inside the station;
+	// buffer (null or of any length) is the auxiliary table, it is returned
+	// (or a larger one) to be reused by the next station;
+	// count is the table of 256 counters of the digits, reused in the same way
+    {
+        // we use radix sort with 8-bit digits,
+        // only for the digits of the largest key (as unsigned)
+        // and only for the digits that are not the same in all the keys
+	if(buffer==null || buffer.length<key.length) buffer= new long[key.length];
+	long[] from=key, to=buffer;
+
+        int digitMask=255;
+
+	long or=0;
+	for(int i=0; i<key.length; i++) or|= key[i];
+	int bits= 64-Long.numberOfLeadingZeros(or);
+
+        for(int d=0; d<bits; d+=8)
+	    {
+		Arrays.fill(count, 0);
+		for(int i=0; i<key.length; i++) count[(int)(from[i]>>d) & digitMask ]++;
+		if(count[(int)(from[0]>>d) & digitMask] == key.length) continue; // the same digit in all the keys
+                for(int i=1; i<count.length; i++) count[i]+= count[i-1];
+
+                for(int i=key.length-1; i>=0; i--) 
+		    {
+                        int idx= (int)(from[i]>>d) & digitMask ;
+			count[idx]--;
+			to[count[idx]]=from[i]; // ranks start from zero
+		    }
+
+		long[] tmp=from;
+                from=to;
+                to=tmp;
+	    }
+	if(from!=key) System.arraycopy(from, 0, key, 0, key.length);
+	return buffer;
+    }
+
+    public void prepare()
+    {
+	// internalSort(); // this is done in RadioNetwork.reGenerateInput()
+
+	gs= new int[key.length];    // size of current group
+	bg= new int[key.length];    // number of elements ranked before current group
+	rig= new int[key.length];   // rank in current group
+	rng= new int[key.length];   // rank in next group
+	gfirst= new int[key.length];
+	glast= new int[key.length];
+        rank= new int[key.length]; 
+	first= new boolean[key.length];
+	last= new boolean[key.length];
+        sent=received= Channel.NIL;
+    }
+
+    
+
+
+    int r()
+	// number of distinct values in table key (we assume that key is sorted)
+    {
+	if(key.length==0) return 0;
+	int x=1;
+	for(int i=0; i<key.length-1; i++)
+	    if(key[i]!= key[i+1]) x++;
+	return x;
+    }
+
+
+    // FOR COMPRESSED RANKING
+
+    public void swapTables()
+    {
+	{
+	    long[] tmp= key;
+	    key=key1;
+	    key1=tmp;
+	}
+	{
+	    int[] tmp= rank;
+	    rank= rank1;
+	    rank1=tmp;
+	}
+	{
+	    boolean[] tmp= first;
+	    first= first1;
+	    first1=tmp;
+	}
+	{
+	    boolean[] tmp= last;
+	    last= last1;
+	    last1=tmp;
+	}
+	{ 
+	    int tmp =n;
+	    n=n1;
+	    n1=tmp;
+	}
+    }
+
+    public void prepareKey1()
+    {
+	key1= new long[r()];
+	n1=key1.length;
+	startP= new int[key1.length];
+	countP= new int[key1.length];
+	if(key1.length==0) return;
+        
+        key1[0]=key[0];
+	int i1=0;
+	for(int i=1; i<key.length; i++)
+	    if(key[i] != key1[i1]) 
+		{
+		    countP[i1]= i-startP[i1];
+		    i1++;
+		    key1[i1]=key[i];
+		    startP[i1]=i;
+		}
+	countP[i1]= key.length-startP[i1];
+	    
+    }
+
+
+};
+
+
+
+class RadioNetwork{
+
+    int clock;  // global clock -- stations are synchronised
+    Channel channel; // single-channel network 
+
+    long seed; // used by reGenerateInput 
+    int  maxK; // used by reGenerateInput 
+    boolean routing; // used by reGenerateInput 
+
+    void nextSlot()
+	// tick of the clock 
+    {
+	nextSlot(true);
+    }
+
+    void nextSlot(boolean endFrame)
+	// tick of the clock; unless endFrame, the next time slot is batched
+	// into the frame of this one (see CountingRank)
+    {
+	clock++;
+	if(endFrame) channel.frame++;
+	channel.clean();
+	// only the stations that used the channel have sent or received other than NIL
+	for(int i=0; i<channel.usersCount; i++) 
+	    {
+		Station s= channel.users[i];
+		s.sent= Channel.NIL;
+		s.received= Channel.NIL;
+		s.used= false;
+		channel.users[i]= null;
+	    }
+	channel.usersCount=0;
+    }
+
+
+    int m; // maximal length of binary representation of the key, m<64
+    long mask; // computed mask with m lower bits set to one
+
+    Station[]  a;
+
+    // int n; // total number of keys 
+
+    // Inverse index of the ranks (used by the simulation only, to find the stations
+    // acting in the time slot without scanning all the keys):
+    // the key of rank r is the key rankKey[r] of the station a[rankStation[r]]
+    int[] rankStation;
+    int[] rankKey;
+
+    // Queue of the ends of the groups (used by the simulation only, to find
+    // the stations of CASE B without testing all the stations):
+    // the groups ending in the slot t of the current level are the keys
+    // eventKey[e] of the stations a[eventStation[e]] for e= groupEnd[t], nextEvent[e], ... 
+    // (until -1), in the increasing order of the stations
+    int[] groupEnd;
+    int[] nextEvent;
+    int[] eventStation;
+    int[] eventKey;
+
+    void queueGroupEnds(Station[] a)
+    {
+	int n= a[0].n;
+	if(groupEnd==null || groupEnd.length<n) {
+	    groupEnd= new int[n];
+	    nextEvent= new int[n];
+	    eventStation= new int[n];
+	    eventKey= new int[n];
+	}
+	Arrays.fill(groupEnd, 0, n, -1);
+	int e=0;
+	for(int i=a.length-1; i>=0; i--)
+	    for(int j=0; j<a[i].key.length; j=a[i].glast[j]+1)
+		{
+		    int t= a[i].bg[j]+a[i].gs[j]-1;
+		    eventStation[e]=i;
+		    eventKey[e]=j;
+		    nextEvent[e]=groupEnd[t];
+		    groupEnd[t]=e;
+		    e++;
+		}
+    }
+
+    void indexRanks(Station[] a)
+	throws Exception
+    {
+	int n= Math.max(a[0].n, 0); // n = -1 if there are no keys
+	if(rankStation==null || rankStation.length<n) {
+	    rankStation= new int[n];
+	    rankKey= new int[n];
+	}
+	for(int i=0; i<a.length; i++)
+	    for(int j=0; j<a[i].key.length; j++) indexRank(a, i, j);
+    }
+
+    void indexRank(Station[] a, int i, int j)
+	throws Exception
+    {
+	int r= a[i].rank[j];
+	if(r<0 || r>=a[0].n) throw new Exception("indexRank: a["+i+"].rank["+j+"] = "+r);
+	rankStation[r]=i;
+	rankKey[r]=j;
+    }
+
+    public long checkSum()
+    {
+	return IntStream.range(0, a.length).parallel()
+	    .mapToLong(i -> { long sum=0; for(long k : a[i].key) sum+=k; return sum; })
+	    .sum();
+    }
+
+
+    public boolean sorted()
+    {
+	if(!IntStream.range(0, a.length).parallel().allMatch(i -> a[i].sorted())) return false;
+	long last= Long.MIN_VALUE; // the last key of the previous stations
+	for(int i=0; i<a.length; i++)
+	    if(a[i].key.length>0) {
+		if(last > a[i].key[0]) return false;
+		last= a[i].key[a[i].key.length-1];
+	    }
+	return true;
+    }
+
+      void generateInput(long seed, int maxK, boolean routing)
+	// Generates random sequence of keys scatered among the stations.
+	// creates new squence of stations.
+	// each station stores at most maxK keys.
+    {
+        this.seed=seed;
+	this.maxK=maxK;
+	this.routing=routing;
+        reGenerateInput();
+    }  
+
+    static final int BLOCK=1024; // stations generated by one task of reGenerateInput
+
+    static long mix(long x)
+	// the finalizer of MurmurHash3 (used to derive the seeds of the stations)
+    {
+	x= (x ^ (x>>>33)) * 0xff51afd7ed558ccdL;
+	x= (x ^ (x>>>33)) * 0xc4ceb9fe1a85ec53L;
+	return x ^ (x>>>33);
+    }
+
+    void reGenerateInput()
+	// Generates random sequence of keys scatered among the stations.
+	// creates new squence of stations.
+	// each station stores at most maxK keys.
+	// The station i uses its own generator seeded with mix(seed+mix(i)),
+	// so the blocks of stations are generated in parallel and the input
+	// depends only on the seed.
+    {
+
+        System.out.println("Seed ="+seed);
+
+	IntStream.range(0, (a.length+BLOCK-1)/BLOCK).parallel().forEach(b -> {
+		long[] buffer=null; // shared by the stations of the block
+		int[] count=new int[256];
+		for(int i=b*BLOCK; i<Math.min(a.length, (b+1)*BLOCK); i++) {
+		    SplittableRandom random=new SplittableRandom(mix(seed+mix(i)));
+		    a[i].key=new long[random.nextInt(maxK+1)];
+		    for(int j=0; j<a[i].key.length; j++) {
+			if(routing) a[i].key[j]= (random.nextInt(a.length));
+			else a[i].key[j]= (random.nextLong() & mask);
+		    }
+		    buffer= a[i].internalSort(buffer, count);
+		}
+	    });
+
+    }
+
+
+    public RadioNetwork(int stations, int bitsInKey)
+	throws Exception
+    {
+	if(bitsInKey>63) throw new Exception("Too many bits in key: "+bitsInKey);
+        m=bitsInKey;
+        mask= Key.mask(bitsInKey);
+
+        channel = new Channel();
+        channel.trace=TraceSink.open(clock);
+      
+        a=new Station[stations];
+        for(int i=0; i<a.length; i++) {
+            a[i]= new Station();
+            a[i].id=i;
+        }
+        
+    }
+
+
+    // PROCEDURES DESCRIBED IN THE TECHNCAL REPORT
+
+    public void Init(Station[] a, int m)
+	throws Exception
+    {
+	// all stations do internally:
+        for(int i=0; i<a.length; i++) 
+	    for(int j=0; j<a[i].key.length; j++) {
+		//		a[i].g[j]=0; a[i].l[j]=m; // group (0,m)
+                a[i].bg[j]=0; // the group (0,m) contains all the keys 
+	    }
+	    
+
+	// a[0] does internally:
+	a[0].lrm=0;
+        for(int j=0; j<a[0].key.length; j++) a[0].rig[j]=j;
+        
+        // 
+        for(int i=0; i<=a.length -2; i++)
+	    {
+		// sending
+		a[i].send(channel, a[i].lrm+a[i].key.length);
+		// listening
+		a[i+1].listen(channel);
+		// a[i+1] does internally:
+		a[i+1].lrm=a[i+1].received;
+		for(int j=0; j<a[i+1].key.length; j++) a[i+1].rig[j]=j+ (int) a[i+1].received;
+		nextSlot();
+            }
+
+      
+	// sending
+        a[a.length-1].received = a[a.length-1].lrm+a[a.length-1].key.length; // 'received' denotes 'x' 
+	a[a.length-1].send(channel, a[a.length-1].received);
+	// listening
+	for(int i=0; i< a.length-1; i++) a[i].listen(channel);
+	// all stations do internally:
+        for(int i=0; i<a.length; i++) 
+	    {
+		a[i].n=(int) a[i].received;
+		for(int j=0; j<a[i].key.length; j++){
+		    a[i].gs[j]= (int) a[i].received;
+		}
+	    }
+	nextSlot();
+	for(int i=0; i< a.length; i++)
+	    { 
+		if( (a[i].key.length>0) && (a[i].rig[0]==0) ) a[i].rng[0]=0; // it remains untouched, should be zero 
+		for(int j=0; j< a[i].key.length; j++)
+		    { 
+			a[i].rank[j]=a[i].bg[j]+a[i].rig[j];
+		    }
+	    }
+    }
+
+
+
+
+
+    void regroupSlot(Station[] a, int l, int t)
+	throws Exception
+	// the rank t of the level l of the regrouping phase
+    {
+	{  // FIND AND CHECK PAIR (a_snd, j')
+	    int snd= rankStation[t], j1= rankKey[t];
+	    if( a[snd].rank[j1] != t )
+		throw new Exception("CountingRank 1: no key of rank "+t+", a["+snd+"].rank["+j1+"] = "+a[snd].rank[j1]);
+	    // a_snd DOES:
+	    if(a[snd].rig[j1] == 0) a[snd].lrm = 0;
+	    int x = (int) a[snd].lrm + ( 1- Key.bit(l, a[snd].key[j1]) );
+	    if( (a[snd].sizeG(j1) < a[snd].gs[j1]) &&
+		( 
+		 ( (a[snd].rig[j1] == a[snd].gs[j1]-1) )
+		 ||
+		 ( (j1== a[snd].key.length-1) || (a[snd].bg[j1+1] != a[snd].bg[j1]) ) 
+		 )
+		)
+		a[snd].send(channel, x);
+	    a[snd].received = x; // a_snd does not have to listen to know x
+	    channel.use(a[snd]);
+	}
+
+	boolean caseA = false;
+	{ // FIND AND CHECK PAIR (a_rcv, j2) for CASE A
+	    int rcv=-1, j2=-1;
+	    if( t+1 < a[0].n ) {
+		int i= rankStation[t+1], j= rankKey[t+1];
+		if( a[i].rank[j] != t+1 )
+		    throw new Exception("CountingRank 2: no key of rank "+(t+1)+", a["+i+"].rank["+j+"] = "+a[i].rank[j]);
+		if( a[i].inS(t, j) )
+		    {
+			rcv=i;
+			j2=j;
+		    }
+	    }
+	    if(rcv != -1)
+		{
+		    caseA = true;
+		    // a_rcv DOES: (* CASE A *)
+		    if( a[rcv].received == Channel.NIL ) a[rcv].listen(channel); // listens unless a_rcv=a_snd
+		    // variable recevied contains x
+		    if( Key.bit(l, a[rcv].key[j2])== 0 ) a[rcv].rng[j2]= (int) a[rcv].received;
+		    else a[rcv].rng[j2]= a[rcv].rig[j2]- (int) a[rcv].received;
+                            a[rcv].lrm =  a[rcv].received;
+		}
+	}
+
+	{  // TEST AND COMPUTE FOR CASE B
+	    // the stations in CASE B are those with a group ending in the slot t
+	    for(int e=groupEnd[t]; e!=-1; e=nextEvent[e])
+		{
+		    int rcv= eventStation[e], p= eventKey[e], q= a[rcv].glast[p];
+		    if( !a[rcv].caseB(t, p) ) throw new Exception("CountingRank 4: a["+rcv+"] is not in CASE B");
+		    if(caseA) throw new Exception("CountingRank 3: can not be CASE A and CASE B !!!");
+		    // a_rcv DOES: (* CASE B *)
+		    if( a[rcv].received == Channel.NIL ) a[rcv].listen(channel); // listens unless a_rcv=a_snd
+		    int split= q+1; // the first key with the bit l equal 1
+		    for(int j=p; j<=q; j++) // S(a_rcv, t)
+			{
+			    if( Key.bit(l, a[rcv].key[j])==0 )
+				a[rcv].gs[j]= (int) a[rcv].received;
+			    else
+				{
+				    a[rcv].bg[j]= a[rcv].bg[j]+ (int) a[rcv].received;
+				    a[rcv].gs[j]= a[rcv].gs[j]- (int) a[rcv].received;	 
+				    if(split>j) split=j;
+				}
+			    a[rcv].rig[j] = a[rcv].rng[j];
+			    a[rcv].rank[j] = a[rcv].bg[j]+a[rcv].rig[j];
+			    indexRank(a, rcv, j);
+			}
+		    for(int j=p; j<=q; j++) // the group is split into two groups
+			{
+			    a[rcv].gfirst[j]= (j<split) ? p : split;
+			    a[rcv].glast[j]= (j<split) ? split-1 : q;
+			}
+		}
+	}
+    }
+
+
+    public void CountingRank(Station[] a, int m)
+	throws Exception
+    {
+
+	System.out.print("Start Init. ");
+	Init( a, m);
+	System.out.println("End.");
+	indexRanks(a);
+	for(int i=0; i<a.length; i++) // after Init all the keys are in the group (0,m)
+	    for(int j=0; j<a[i].key.length; j++) {
+		a[i].gfirst[j]=0;
+		a[i].glast[j]=a[i].key.length-1;
+	    }
+
+	// testAfterInit( a, m);
+
+
+	// REGROUPING PHASE
+
+	// Batched accounting: the consecutive ranks of the same sender are
+	// batched into a frame of at most width ranks, whose counts x fit
+	// into one 64-bit message. The frame is counted as one time slot in
+	// channel.frame and the stations send and listen at most once in it
+	// (batchedSE, batchedLE). It assumes that the stations know the frames,
+	// so the batched time is a lower bound for the wider messages.
+	int width= frameWidth();
+
+        System.out.println("Start Counting-rank.");
+	for(int l=m-1; l>=0; l--) {
+	    System.out.print("Start level "+l+". ");
+	    queueGroupEnds(a);
+	    int start=0; // the first rank of the frame
+	    for(int t=0; t<a[0].n; t++) {
+		int snd= rankStation[t];
+		regroupSlot(a, l, t);
+		boolean endFrame= t+1 == a[0].n || t+1-start == width || rankStation[t+1] != snd;
+		if(endFrame) start= t+1;
+		nextSlot(endFrame); // END OF TIME SLOT (l,t) OF REGROUPING PHASE
+	    } // END OF  for(int t ...) 		
+	    //  printState(a);
+	    System.out.println("End.");
+	} // END OF for(int l ...)  
+	for(int i=0; i<a.length; i++)
+	    for(int j=0; j<a[i].key.length; j++)
+		{
+		    if(a[i].rig[j] == 0)  a[i].first[j]= true;
+		    else a[i].first[j]= false;
+		    if(a[i].rig[j] == a[i].gs[j]-1)  a[i].last[j]= true;
+		    else a[i].last[j]= false;
+		}
+	System.out.println("End Counting-ranks.");
+    }// END OF CountingRank( ... ) 
+
+
+
+    // Senders of ComputeIntervals (used by the simulation only):
+    // the key i with first (last) is in the station firstStation[i] (lastStation[i])
+    // and has the rank firstRank[i] (lastRank[i]); the station is -1 if there is no such key
+    int[] firstStation;
+    int[] firstRank;
+    int[] lastStation;
+    int[] lastRank;
+
+    void indexIntervals(Station[] a)
+	throws Exception
+    {
+	int p= a.length;
+	if(firstStation==null || firstStation.length<p) {
+	    firstStation= new int[p];
+	    firstRank= new int[p];
+	    lastStation= new int[p];
+	    lastRank= new int[p];
+	}
+	Arrays.fill(firstStation, 0, p, -1);
+	Arrays.fill(lastStation, 0, p, -1);
+	for(int snd=0; snd<p; snd++)
+	    for(int j=0; j<a[snd].key.length; j++)
+		{
+		    long k= a[snd].key[j];
+		    if(k<0 || k>=p) continue; // it is not sent
+		    int i= (int) k;
+		    if(a[snd].first[j]) {
+			if(firstStation[i]!=-1) throw new Exception("ComputeIntervals 2: two first keys "+i);
+			firstStation[i]=snd;
+			firstRank[i]=a[snd].rank[j];
+		    }
+		    if(a[snd].last[j]) {
+			if(lastStation[i]!=-1) throw new Exception("ComputeIntervals 3: two last keys "+i);
+			lastStation[i]=snd;
+			lastRank[i]=a[snd].rank[j];
+		    }
+		}
+    }
+
+    public void ComputeIntervals(Station[] a)
+	throws Exception
+    {
+        System.out.print("Start Compute-intervals. ");
+	indexIntervals(a);
+	for(int i=0; i<a.length; i++)
+	    {
+		// SLOT 2*i
+		if(firstStation[i]!=-1) a[firstStation[i]].send(channel, firstRank[i]);
+
+		a[i].listen(channel);
+		if(a[i].received == Channel.NIL) {
+		    a[i].i1= -1;
+		    a[i].i2=-1;
+		}
+		else a[i].i1 = (int) a[i].received;
+		nextSlot();
+
+		// SLOT 2*i+1
+		if(lastStation[i]!=-1) a[lastStation[i]].send(channel, lastRank[i]);
+
+		if(a[i].i1 != -1)
+		    {
+			a[i].listen(channel);
+			if(a[i].received<0) throw new Exception("ComputeIntervals 1: a["+i+"].received = "+a[i].received);
+			a[i].i2 = (int) a[i].received;
+		    }
+		nextSlot();
+
+	    }
+
+        System.out.println("End.");
+    } // END OF ComputeIntervals
+
+
+
+
+    // the packets carry their sources (for testAfterRouting),
+    // unless the property rn.tagPackets is false
+    boolean tagPackets= Boolean.parseBoolean(System.getProperty("rn.tagPackets", "true"));
+    PacketLayout layout;      // the layout of the packets of the last FinishRouting
+
+    interface Delivery
+	// receives the packets in FinishRouting instead of the tables receivedKey, ...
+	// (the packet is encoded by layout)
+    {
+	void deliver(int rcv, long packet) throws Exception;
+    }
+
+    // Receivers of FinishRouting (used by the simulation only):
+    // the stations with i1 = i are startReceiver[i], nextReceiver[startReceiver[i]], ... (until -1),
+    // the stations listening in the current slot are active[0 .. actives-1]
+    int[] startReceiver;
+    int[] nextReceiver;
+    int[] active;
+    int actives;
+
+    void queueReceivers(Station[] a)
+    {
+	int n= Math.max(a[0].n, 0); // n = -1 if there are no keys
+	if(startReceiver==null || startReceiver.length<n) startReceiver= new int[n];
+	if(nextReceiver==null || nextReceiver.length<a.length) {
+	    nextReceiver= new int[a.length];
+	    active= new int[a.length];
+	}
+	Arrays.fill(startReceiver, 0, n, -1);
+	for(int rcv=a.length-1; rcv>=0; rcv--)
+	    if( (0<=a[rcv].i1) && (a[rcv].i1<n) && (a[rcv].i1<=a[rcv].i2) )
+		{
+		    nextReceiver[rcv]=startReceiver[a[rcv].i1];
+		    startReceiver[a[rcv].i1]=rcv;
+		}
+	actives=0;
+    }
+
+
+    public void FinishRouting(Station[] a)
+	throws Exception
+    {
+	FinishRouting(a, null);
+    }
+
+    public void FinishRouting(Station[] a, Delivery delivery)
+	// the packets are stored in the tables receivedKey, ... or given to delivery
+	throws Exception
+    {
+        System.out.print("Start Finish-routing. ");
+
+	int maxS=0;
+	for(int i=0; i<a.length; i++) maxS= Math.max(maxS, a[i].key.length);
+	layout= new PacketLayout(a.length, maxS, tagPackets);
+
+	// prepare tables for reception of packets
+	for(int i=0; i<a.length; i++) 
+	    {
+		a[i].packetsReceived=0;
+		a[i].receivedKey= a[i].receivedStation= a[i].receivedIndex= null;
+		if(delivery == null && a[i].i1 != -1) {
+		    int size= a[i].i2-a[i].i1+1;
+		    a[i].receivedKey= new int[size];
+		    if(layout.tagged) {
+			a[i].receivedStation= new int[size];
+			a[i].receivedIndex= new int[size];
+		    }
+		}
+	    }
+
+	// the key of rank i is the sender in the slot i
+	indexRanks(a);
+	int keys=0;
+	for(int snd=0; snd<a.length; snd++)
+	    for(int j=0; j<a[snd].key.length; j++, keys++)
+		if( rankStation[a[snd].rank[j]]!=snd || rankKey[a[snd].rank[j]]!=j )
+		    throw new Exception("FinishRouting 2: two keys of rank "+a[snd].rank[j]);
+	if(keys != Math.max(a[0].n, 0)) throw new Exception("FinishRouting 3: "+keys+" keys of "+a[0].n+" ranks");
+	// sweep over the intervals [i1,i2] of the receivers
+	queueReceivers(a);
+
+	for(int i=0; i< a[0].n; i++)
+	    {
+		// SLOT i
+		int snd= rankStation[i], j= rankKey[i];
+		a[snd].send(channel, layout.encode(a[snd].key[j], snd, j)); // the sender is encoded for tests
+
+		for(int rcv=startReceiver[i]; rcv!=-1; rcv=nextReceiver[rcv]) 
+		    { // insert rcv to the active receivers in the increasing order
+			int k;
+			for(k=actives; k>0 && active[k-1]>rcv; k--) active[k]=active[k-1];
+			active[k]=rcv;
+			actives++;
+		    }
+		int remaining=0;
+		for(int k=0; k<actives; k++) {
+		    int rcv= active[k];
+		    a[rcv].listen(channel);
+		    long packet= a[rcv].received;
+		    if( packet < 0 || layout.key(packet) != rcv ) 
+			throw new Exception("FinishRouting: a["+rcv+"].received = "+packet+" is not for a["+rcv+"]");
+		    if(delivery == null) {
+			a[rcv].receivedKey[a[rcv].packetsReceived]= layout.key(packet);
+			if(layout.tagged) {
+			    a[rcv].receivedStation[a[rcv].packetsReceived]= layout.station(packet);
+			    a[rcv].receivedIndex[a[rcv].packetsReceived]= layout.index(packet);
+			}
+		    }
+		    else delivery.deliver(rcv, packet);
+		    a[rcv].packetsReceived++;
+		    if(i<a[rcv].i2) active[remaining++]=rcv;
+		}
+		actives=remaining;
+		nextSlot();
+	    } 
+        System.out.println("End.");
+    } // END OF FinishRouting
+
+
+    public void RoutePackets(Station[] a)
+	throws Exception
+    {
+	CountingRank(a, Key.log2(a.length));
+	ComputeIntervals(a);
+	FinishRouting(a);
+    } // END OF RoutePackets
+
+
+    public void AcceleratedRouting(Station[] a)
+	throws Exception
+    {
+	System.out.println("AcceleratedRouting:");
+	CompressedCountingRank(a, Key.log2(a.length));
+	ComputeIntervals(a);
+	FinishRouting(a);
+    } // END OF RoutePackets
+
+
+
+    public void CompressedCountingRank(Station[] a, int m)
+	throws Exception
+    {
+
+	System.out.println("CompressedCountingRank:");
+
+	for(int i=0; i<a.length; i++)
+	    {
+		a[i].prepareKey1();
+		a[i].swapTables();
+		a[i].prepare();
+	    }
+	
+	CountingRank(a,m);
+	
+	// System.out.print("INSIDE CompressedCR: "); testCountingRank(a);
+
+	for(int i=0; i<a.length; i++) 
+	    {
+		a[i].swapTables();
+		a[i].prepare(); // creates tables: rank, first, last 
+	    }
+
+        ExpandRanks(a);
+
+    }
+
+
+    public void ExpandRanks(Station[] a)
+	throws Exception
+    {
+	// RESTORE first AND last
+	for(int i=0; i<a.length; i++)
+	    for(int j=0; j<a[i].key.length; j++)
+		{
+		    a[i].first[j]= false;
+		    a[i].last[j]= false;
+		}
+
+	for(int i=0; i<a.length; i++)
+	    for(int j1=0; j1<a[i].key1.length; j1++)
+		{
+		    a[i].first[ a[i].minP1(j1) ]= a[i].first1[j1];
+		    a[i].last[ a[i].maxP1(j1) ]= a[i].last1[j1];
+		}
+
+	for(int i=0; i<a.length; i++) a[i].lrm= 0; 
+
+
+	// the inverse index of the ranks built by CountingRank for the tables
+	// swapped now to key1, rank1 gives the key of the rank t
+	for(int t=0; t< a[0].n1-1; t++)
+	    {
+		{
+		    int snd= rankStation[t], j= rankKey[t];
+		    if(a[snd].rank1[j] != t) throw new Exception("ExpandRanks 1: no key of rank "+t);
+		    int p1= a[snd].minP1(j);
+		    int c= a[snd].sizeP1(j);
+		    for(int d=0; d<c; d++)
+			a[snd].rank[p1+d]= (int) a[snd].lrm+d;
+		    a[snd].send(channel, a[snd].lrm+c);
+		}
+
+		{
+		    int rcv= rankStation[t+1], j= rankKey[t+1];
+		    if(a[rcv].rank1[j] != t+1) throw new Exception("ExpandRanks 2: no key of rank "+(t+1));
+		    a[rcv].listen(channel);
+		    a[rcv].lrm= a[rcv].received;
+		}
+
+		nextSlot();
+	    } // END OF for(int t= ...)
+
+	for(int snd=0; snd<a.length; snd++)
+	    for(int j=0; j<a[snd].key1.length; j++)
+		if(a[snd].rank1[j] == a[0].n1-1)
+		    {
+			int p1= a[snd].minP1(j);
+			int c= a[snd].sizeP1(j);
+			for(int d=0; d<c; d++)
+			    a[snd].rank[p1+d]= (int) a[snd].lrm+d;
+			a[snd].send(channel, a[snd].lrm+c);
+			a[snd].received=a[snd].sent;
+		    }
+
+	for(int i=0; i<a.length; i++)
+	    {
+		if(a[i].received == Channel.NIL ) a[i].listen(channel);
+		a[i].n = (int) a[i].received;
+	    } 
+	
+	nextSlot();	    
+
+    }// END OF ExpandRanks
+
+
+
+    /// THEORETICAL BOUNDS ON COMPLEXITIES
+
+    int n()
+    {
+	int s=0;
+	for(int i=0; i<a.length; i++) s= s+a[i].key.length;
+	return s;
+    }
+
+    int r()
+    {
+	int s=0;
+	for(int i=0; i<a.length; i++) s= s+a[i].r();
+	return s;
+    }
+
+
+
+
+
+    int maxS()
+    {
+	int m=a[0].key.length;
+	for(int i=1; i<a.length; i++) if(a[i].key.length>m) m=a[i].key.length;
+	return m;
+    }
+
+    int minS()
+    {
+	int m=a[0].key.length;
+	for(int i=1; i<a.length; i++) if(a[i].key.length<m) m=a[i].key.length;
+	return m;
+    }
+
+
+    public int maxD()
+	// should be computed only for routing
+    {
+	int[] d=new int[a.length];
+	for(int i=0; i<a.length; i++)
+	    for(int j=0; j<a[i].key.length; j++) d[(int) a[i].key[j]]++;
+	int max=d[0];
+	for(int i=1; i<d.length; i++) 
+	    if(max<d[i]) max=d[i];
+	return max;
+    }  
+
+
+    int maxR()
+    {
+	int max=a[0].r();
+	for(int i=1; i<a.length; i++)
+	    if(a[i].r() > max) max=a[i].r();
+	return max;
+    }
+
+    int maxSE()
+	// maximal sending energy
+    {
+	return Energy.maxSE(a, 0, a.length-1);
+    }
+
+
+    int maxLE()
+	// maximal listening energy
+    {
+	return Energy.maxLE(a, 0, a.length-1);
+    }
+
+
+
+
+
+    int frameWidth()
+	// the number of counts 0..n in a 64-bit message
+    {
+	return 64/Math.max(1, Key.log2(n()+1));
+    }
+
+    int batchedTime()
+	// the time with the batched regrouping (see CountingRank)
+    {
+	return channel.frame;
+    }
+
+    int maxBatchedSE()
+    {
+	int x=-1;
+	for(int i=0; i<a.length; i++) if(a[i].batchedSE>x) x=a[i].batchedSE;
+	return x;
+    }
+
+    int maxBatchedLE()
+    {
+	int x=-1;
+	for(int i=0; i<a.length; i++) if(a[i].batchedLE>x) x=a[i].batchedLE;
+	return x;
+    }
+
+    int CountingRankTime()
+    {
+	// p+m*n
+	return a.length+m*n();
+    }
+
+    int CountingRankSE()
+    {
+	// 1+m*r
+	return 1+m*maxR();
+    }
+
+    int CountingRankLE()
+    {
+	// 2+2*m*r
+	return 2+2*m*maxR();
+    }
+
+    int CompressedCountingRankTime()
+    {
+	// p+m*n+r
+	return a.length+m*r()+r();
+    }
+
+    int CompressedCountingRankSE()
+    {
+	// 1+m*r
+	return 1+m*maxR()+maxR();
+    }
+
+    int CompressedCountingRankLE()
+    {
+	// 2+2*m*r
+	return 2+2*m*maxR()+maxR()+1;
+    }
+
+    int RoutePacketsTime()
+    {
+	// m*n+n+3*p
+	return m*n()+n()+3*a.length;
+    }
+
+    int RoutePacketsSE()
+    {
+	//m*maxR+maxS+2*maxR+1
+	return m*maxR()+maxS()+2*maxR()+1;
+    }
+
+    int RoutePacketsLE()
+    {
+	// 2*m*maxR + maxD + 4
+	return 2*m*maxR()+ maxD() +4;
+    }
+
+    int AcceleratedRoutingTime()
+    {
+	// m*r+n+3*p+r
+	return m*r()+n()+3*a.length+r();
+    }
+
+    int AcceleratedRoutingSE()
+    {
+	//m*maxR+maxS+2*maxR+1
+	return m*maxR()+maxS()+3*maxR()+1;
+    }
+
+    int AcceleratedRoutingLE()
+    {
+	// 2*m*maxR + maxD + 4
+	return 2*m*maxR()+ maxD()+maxR()+5;
+    }
+
+  
+
+    /// PROCEDURES FOR TESTING
+
+    public void testAfterInit(Station[] a, int m)
+	throws Exception
+    {
+	// recompute n
+        int n=0;
+        for(int i=0; i<a.length; i++) n= n+a[i].key.length;        
+        System.out.println("testAfterInit: n = "+n);
+          
+        // test a[i].n and a[i].gs[j]
+	
+        for(int i=0; i<a.length; i++)
+	    {
+		if(a[i].n!=n) throw new Exception("a["+i+"].n = "+a[i].n+"  ( !=  n = "+n+")");
+		for(int j=0; j<a[i].key.length; j++)
+		    if(a[i].gs[j]!=n) throw new Exception("a["+i+"].gs["+j+"] = "+a[i].gs[j]+"  ( !=  n = "+n+")");
+	    }
+
+        // test a[i].rig[j]
+
+        int r=0;
+        for(int i=0; i<a.length; i++)
+	    for(int j=0; j<a[i].key.length; j++)
+		{
+		if(a[i].rig[j]!=r) throw new Exception("a["+i+"].rig["+j+"] = "+a[i].rig[j]+"  ( !=  r = "+r+")");
+		r++;
+		}
+
+        System.out.println("testAfterInit: OK");
+    }
+
+    void testCountingRank(Station[] a)
+	throws Exception
+    {
+	// t[r] = (i,j) packed as i<<32|j, where a[i].key[j] has the rank r;
+	// the tests are done in parallel
+	int n= Math.max(a[0].n, 0); // n = -1 if there are no keys
+	if(IntStream.range(0, a.length).map(i -> a[i].key.length).sum() != n)
+	    throw new Exception("testCountingRank 0: a[0].n = "+n+" is not the number of keys");
+	long[] t= new long[n]; 
+	Arrays.fill(t, -1);
+
+	String e1= IntStream.range(0, a.length).parallel().mapToObj(i -> {
+		for(int j=0; j<a[i].key.length; j++)
+		    {
+			int r= a[i].rank[j];
+			if(r<0 || r>=n) return "a["+i+"].rank["+j+"] = "+r;
+			t[r]= ((long) i<<32)|j;
+		    }
+		return null;
+	    }).filter(Objects::nonNull).findFirst().orElse(null);
+	if(e1 != null) throw new Exception("testCountingRank 1: "+e1);
+	// n keys are written to n positions and each reads back its own,
+	// so t is a permutation
+	String e2= IntStream.range(0, a.length).parallel().mapToObj(i -> {
+		for(int j=0; j<a[i].key.length; j++)
+		    if(t[a[i].rank[j]] != (((long) i<<32)|j))
+			return "a["+i+"].rank["+j+"] = "+a[i].rank[j]+" is not unique";
+		return null;
+	    }).filter(Objects::nonNull).findFirst().orElse(null);
+	if(e2 != null) throw new Exception("testCountingRank 2: "+e2);
+	
+	String e3= IntStream.range(0, Math.max(n-1, 0)).parallel().mapToObj(r -> {
+		int i= (int) (t[r]>>>32), j= (int) t[r], i1= (int) (t[r+1]>>>32), j1= (int) t[r+1];
+		long k= a[i].key[j], k1= a[i1].key[j1];
+		if( (k > k1) || ((k == k1) && (i > i1)) || ((k == k1) && (i == i1) && (j >= j1)) )
+		    return "t["+r+"] = ("+k+","+i+","+j+")"+"and t["+(r+1)+"] = ("+k1+","+i1+","+j1+")";
+		return null;
+	    }).filter(Objects::nonNull).findFirst().orElse(null);
+	if(e3 != null) throw new Exception("testCountingRank 3: "+e3);
+
+	System.out.println("testCountingRank: OK");
+	       
+
+    }
+
+
+    void testAfterRouting(Station[] a)
+	throws Exception
+      
+    {
+	// the tagged packets have their sending positions (snd,j): the delivered packets
+	// are marked in the bitset of the positions offset[snd]+j of the keys
+	// (the input is not changed); the untagged packets are only counted
+	// (expected[i] is the number of the keys equal i), in parallel
+	int p= a.length;
+	long[] offset= new long[p+1];
+	for(int i=0; i<p; i++) offset[i+1]= offset[i]+a[i].key.length;
+	AtomicLongArray delivered= new AtomicLongArray((int) ((offset[p]+63)/64));
+	int[] expected= new int[p];
+	for(int i=0; i<p; i++)
+	    for(int j=0; j<a[i].key.length; j++)
+		if( 0<=a[i].key[j] && a[i].key[j]<p ) expected[(int) a[i].key[j]]++;
+		else throw new Exception("testAfterRouting 0: a["+i+"].key["+j+"] = "+ a[i].key[j]+" is not a station");
+	boolean tagged= layout.tagged;
+
+	String e= IntStream.range(0, p).parallel().mapToObj(i -> {
+		int size= (a[i].receivedKey == null) ? 0 : a[i].receivedKey.length;
+		if( size != expected[i] || a[i].packetsReceived != size )
+		    return "testAfterRouting 1: a["+i+"].packetsReceived = "+a[i].packetsReceived+
+			", a[i].receivedKey.length = "+size+", keys equal "+i+" = "+expected[i];
+		for(int j=0; j<size; j++)
+		    {
+			int rcv= a[i].receivedKey[j];
+			if(rcv != i)
+			    return "testAfterRouting 2: rcv = "+rcv+" != i = "+i;
+			if(!tagged) continue;
+			int snd= a[i].receivedStation[j];
+			int jSnd= a[i].receivedIndex[j];
+			if( snd >= p || jSnd >= a[snd].key.length || a[snd].key[jSnd] != i )
+			    return "testAfterRouting 3: packet from a["+snd+"].key["+jSnd+"] is not for i = "+i;
+			long x= offset[snd]+jSnd;
+			long bit= 1L<<(x & 63);
+			if( (delivered.getAndAccumulate((int) (x>>>6), bit, (u, v) -> u|v) & bit) != 0 )
+			    return "testAfterRouting 5: a["+snd+"].key["+jSnd+"] delivered twice";
+		    }
+		return null;
+	    }).filter(Objects::nonNull).findFirst().orElse(null);
+	if(e != null) throw new Exception(e);
+	// each station received as many packets as there are keys equal to it
+	// and (if tagged) no packet twice, so all of them are delivered
+        
+	System.out.println("testAfterRouting: OK");
+    } // END OF TEST AFTER ROUTING
+
+
+
+    void printState(Station[] a)
+    {
+	System.out.println("state:");
+	for(int i=0; i< a.length; i++)
+	    {
+		System.out.println("a["+i+"]");
+		for(int j=0; j<a[i].key.length; j++)
+		    System.out.println(j+" k="+a[i].key[j]+" bg="+a[i].bg[j]+" gs="+a[i].gs[j]+" rig="+a[i].rig[j]+" r="+a[i].rank[j]);
+		
+	    }
+    }
+
+
+
+};
@@ -0,0 +1,113 @@
+/**
+ *
+ *    Naive simulation of  merging algorithm in
+ *    the single-hop radio network where each station stores $k$ keys.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+/**
+ *
+ * This program is a naive simulation of the
+ * merging algorithm 
+ * described in the DELIS technical report:
+ *
+ *    M.Kik "Sorting Long Sequence in a Single-hop Radio Network".
+ *    DELIS-TR-0239 (http://delis.upb.de/paper/DELIS-TR-0239.pdf)
+ *
+ * It is intended to verify the correctness and demonstrate implementability
+ * of the algorithm.
+ * The source file RadioNetwork.java also explains some technical details
+ * that were skipped in the technical report.
+ * 
+ * The procedures:
+ * init, findPartners, lUpdate, rUpdate, tryRanking, rankUnsplit,  
+ * rank and merge
+ * in the class RadioNetwork (RadioNetwork.java)
+ * are described in the technical report.
+ * The remaining procedures are providing enviroment for the simulations.
+ *
+ * Note that it is sequential simulation and may be very slow
+ * for large values $k$ and $m$.
+ *
+ */
+
+
+
+/*
+ * LongSort.java
+ *
+ * Created on 16 listopad 2005, 15:23
+ */
+
+/**
+ *
+ * @author kik
+ */
+
+
+package rn.longsort;
+
+import rn.core.Launcher;
+
+
+
+
+public class LongSort {
+    static final int NIL=-1;
+    static final int COLLISION=-2;
+    
+    
+    
+    /** Creates a new instance of LongSort */
+    public LongSort() {
+    }
+    
+    /**
+     * @param args the command line arguments (see rn.core.Launcher):
+     *    [-n n] [-seed seed] [-d distribution] [-reps repetitions] [-k keys] [-list]
+     */
+    public static void main(String[] args)
+    throws Exception
+    {
+        Launcher launcher=new Launcher("java rn.longsort.LongSort", 16,
+        "number of stations, even: $m=n/2$ stations of each sequence");
+        launcher.distribution("random");
+        launcher.distribution("sorted");
+        launcher.distribution("reversed");
+        launcher.option("-k", "keys", 4, 1, "number $k$ of keys in each station");
+        launcher.check((algorithm, n, option) -> {
+            if(n%2!=0) throw new IllegalArgumentException("n should be even: "+n);
+        });
+        
+        launcher.put("LongSort", (n, seed, distribution, option) -> {
+            RadioNetwork rn=new RadioNetwork(n/2, option[0], seed, distribution);
+            rn.merge(rn.a, rn.b);
+            
+            System.out.println("SE = "+rn.maxSE()+", bound = "+rn.upBoundSE());
+            System.out.println("LE = "+rn.maxLE()+", bound = "+rn.upBoundLE());
+            System.out.println("clock ="+rn.clock+", bound = "+rn.boundT());
+            return new long[] {rn.clock, rn.maxLE(), rn.maxSE(), rn.outputOK()? 1:0};
+        });
+        
+        launcher.main(args);
+    }
+    
+}
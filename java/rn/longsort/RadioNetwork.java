@@ -23,102 +23,19 @@
  *    The author can be reached at kik@im.pwr.wroc.pl
  *
  */
-/**
- *
- * This program is a naive simulation of the
- * merging algorithm 
- * described in the DELIS technical report:
- *
- *    M.Kik "Sorting Long Sequence in a Single-hop Radio Network".
- *    DELIS-TR-0239 (http://delis.upb.de/paper/DELIS-TR-0239.pdf)
- *
- * It is intended to verify the correctness and demonstrate implementability
- * of the algorithm.
- * This source file also explains some technical details that were skipped
- * in the technical report.
- * 
- * The procedures:
- * init, findPartners, lUpdate, rUpdate, tryRanking, rankUnsplit,  
- * rank and merge
- * in the class RadioNetwork
- * are described in the technical report.
- * The remaining procedures are providing enviroment for the simulations.
- *
- * Note that it is sequential simulation and may be very slow
- * for large values $k$ and $m$.
- *
- */
 
 
-
-/*
- * LongSort.java
- *
- * Created on 16 listopad 2005, 15:23
- */
-
-/**
- *
- * @author kik
- */
-
+package rn.longsort;
 
 import java.util.*;
 
+import rn.core.Energy;
+import rn.core.T;
+import rn.core.TraceSink;
 
 
 
-public class LongSort {
-    static final int NIL=-1;
-    static final int COLLISION=-2;
-    
-    
-    
-    /** Creates a new instance of LongSort */
-    public LongSort() {
-    }
-    
-    /**
-     * @param args the command line arguments
-     */
-    public static void main(String[] args) {
-        // TODO code application logic here
-        
-        int m=8, k=4;
-        
-        try{
-            m= Integer.parseInt(args[0]);
-            k= Integer.parseInt(args[1]);
-        } catch(Exception e) {
-            System.out.println("PROGRAM SHOULD BE INVOKED WITH TWO INTEGERS $m$ AND $k$:");
-            System.out.println("   java LongSort $m$ $k$");
-            System.exit(-1);
-        }
-        
-        
-        RadioNetwork rn=new RadioNetwork(m,k);
-        
-        //       System.out.println("\nKEYS:"); rn.printTable(rn.a);
-        //       System.out.println();  rn.printTable(rn.b);
-        
-        
-        rn.merge(rn.a, rn.b);
-        
-        //        System.out.println("\n\nRESULT:"); rn.printTable(rn.a);
-        //        System.out.println();  rn.printTable(rn.b);
-        
-        System.out.println("\n\nOutputOk = "+rn.outputOK());
-        System.out.println("\nSE = "+rn.maxSE()+", bound = "+rn.upBoundSE());
-        System.out.println("LE = "+rn.maxLE()+", bound = "+rn.upBoundLE());
-        System.out.println("clock ="+rn.clock+", bound = "+rn.boundT());
-        
-    }
-    
-}
-
-
-
-class Station{
+class Station extends Energy {
     
     
     // Variables of the algorithm
@@ -144,30 +61,74 @@ class Station{
     int f,l; // last received range in FindPartners
     int v; // currently considered key of $b$-sequence in TryRanking
     
-    // Variables for statistics
+    // Variables for statistics: le, se (see rn.core.Energy)
     
-    int le; // energy for listening
-    int se; // energy for sending
+    int id; // the number of the station in c[] (for the trace)
     
     
-    Station(int k)
+    Station(int k, int id)
     // Constructs new station for $k$ keys
     {
+        this.id=id;
         key= new int[k+2];   // key[0...k+1]
         rank= new int[k+1];  // rank[1...k]
         idx= new int[k+1];   // idx[1...k]
         newKey= new int[k+1]; // new[1...k]
-        
+        rankFrom= new int[k];
+        rankValue= new int[k];
+    }
+    
+    
+    // Local computations on the sorted keys key[0...k+1]
+    
+    int upper(int v, int lo, int hi)
+    // the smallest s in lo...hi such that v<key[s], or hi+1 (binary search)
+    {
+        while(lo<=hi) {
+            int s=(lo+hi)>>>1;
+            if(v<key[s]) hi=s-1;
+            else lo=s+1;
+        }
+        return lo;
+    }
+    
+    // the assignments rank[s]=rankValue[q] for s=rankFrom[q]...k, q=0...ranks-1,
+    // delayed until flushRanks (rankFrom is increasing)
+    int[] rankFrom;
+    int[] rankValue;
+    int ranks;
+    
+    void rankAbove(int v, int value)
+    // rank[s]=value for each s in 1...k such that v<key[s]
+    {
+        int k=key.length-2;
+        int from=upper(v, 1, k);
+        if(from>k) return;
+        while(ranks>0 && rankFrom[ranks-1]>=from) ranks--; // overwritten
+        rankFrom[ranks]=from;
+        rankValue[ranks]=value;
+        ranks++;
+    }
+    
+    void flushRanks()
+    // each rank[s] is written once
+    {
+        int k=key.length-2;
+        for(int q=0; q<ranks; q++)
+            Arrays.fill(rank, rankFrom[q], (q+1<ranks)? rankFrom[q+1] : k+1, rankValue[q]);
+        ranks=0;
     }
     
     
     void listen(Channel c) {
+        if(c.trace!=null) c.trace.listen(id);
         received= c.message;
         le++;
     }
     
     void send(Channel c, int message) {
         c.broadcast(message);
+        if(c.trace!=null) c.trace.send(id, message);
         se++;
     }
     
@@ -226,12 +187,15 @@ class Station{
 class Channel{
     int message;
     
+    TraceSink trace; // the trace of the time slots, null if not traced
+    
     
     public Channel() {
         clean();
     }
     
     void clean() {
+        if(trace!=null) trace.slot();
         message=LongSort.NIL;
     }
     
@@ -256,17 +220,19 @@ class RadioNetwork{
     int clock;      // number of time slot
     
     
-    RadioNetwork(int m, int k)
+    RadioNetwork(int m, int k, long seed, String distribution)
     // Constructs a network for merging two sequences of size $mk$
+    // (see generateInput())
     {
         channel=new Channel();
+        channel.trace=TraceSink.open(clock);
         
         a= new Station[m+1]; // a[1] ... a[m]
         b= new Station[m+1]; // b[1] ... b[m]
         
         for(int i=1; i<=m; i++) {
-            a[i]= new Station(k);
-            b[i]= new Station(k);
+            a[i]= new Station(k, i);
+            b[i]= new Station(k, m+i);
         }
         
         c=new Station[2*m+1];
@@ -277,21 +243,20 @@ class RadioNetwork{
         }
         
         
-        generateInput();
+        generateInput(seed, distribution);
     }
     
     
-    void generateInput()
+    void generateInput(long seed, String distribution)
     // Generates sorted a-sequence and b-sequence
-    // by randomly distributing the sequence 1,...,2km
-    // between a-seuence and b-sequence
+    // by distributing the sequence 1,...,2km
+    // between a-seuence and b-sequence:
+    //   random   - randomly,
+    //   sorted   - a-sequence gets 1,...,km,
+    //   reversed - b-sequence gets 1,...,km.
     {
-        long seed=System.currentTimeMillis();
-        // seed=1132341389132L;
         Random random=new Random(seed);
         
-        System.out.println("Seed ="+seed);
-        
         // retrieve values $m$ and $k$
         int m= a.length-1;
         int k= a[1].key.length-2;
@@ -299,7 +264,13 @@ class RadioNetwork{
         int ia=0, ib=0, j=1;
         
         while(ia<m*k && ib<m*k) {
-            if(random.nextBoolean()) {
+            boolean toA;
+            if(distribution.equals("sorted")) toA=true;
+            else if(distribution.equals("reversed")) toA=false;
+            else if(distribution.equals("random")) toA=random.nextBoolean();
+            else throw new IllegalArgumentException("unknown distribution: "+distribution);
+            
+            if(toA) {
                 ia++;
                 a[(ia-1)/k+1].key[(ia-1)%k +1]=j;
             } else {
@@ -338,11 +309,7 @@ class RadioNetwork{
     // statistics
     
     int maxLE() {
-        int mx=c[1].le;
-        
-        for(int i=1; i<= c.length-1; i++)
-            if(mx<c[i].le) mx=c[i].le;
-        return mx;
+        return Energy.maxLE(c, 1, c.length-1);
     }
     
     int upBoundLE()
@@ -355,11 +322,7 @@ class RadioNetwork{
     }
     
     int maxSE() {
-        int mx=c[1].se;
-        
-        for(int i=1; i<= c.length-1; i++)
-            if(mx<c[i].se) mx=c[i].se;
-        return mx;
+        return Energy.maxSE(c, 1, c.length-1);
     }
     
     int upBoundSE()
@@ -488,11 +451,13 @@ class RadioNetwork{
         int m=a.length-1;         // retrieve m
         int k=a[1].key.length-2; // retrieve k
         
+        wakeReset(m);
         for(int i=1; i<=m; i++) {
             a[i].lTimer = a[i].rTimer = 1 ;
             a[i].lRank =  a[i].rRank = 0;
             a[i].lPartner = a[i].rPartner = null;
             a[i].split = false;
+            wake(1, i);
         }
         
         
@@ -501,30 +466,37 @@ class RadioNetwork{
             // while(d != T.p(m,x)) x++;
             int x=T.pReverse(m, d);
             
+            // the stations a[i] with lTimer==d or rTimer==d are
+            // a[wakeStation[e]] for e=wakeFirst[d], wakeNext[e], ...
             
             newTimeSlot();
             b[x].send(channel, b[x].key[1]); // b[i] broadcasts its leftmost key
-            for(int i=1; i<=m; i++) {
-                if(a[i].lTimer==d || a[i].rTimer==d) {
-                    a[i].listen(channel);
-                    a[i].f=a[i].received; // remember the first received key
-                }
+            for(int e=wakeFirst[d]; e!=LongSort.NIL; e=wakeNext[e]) {
+                int i=wakeStation[e];
+                a[i].listen(channel);
+                a[i].f=a[i].received; // remember the first received key
             }
             
             newTimeSlot();
             b[x].send(channel, b[x].key[k]); // b[i] broadcasts its rightmost key
-            for(int i=1; i<=m; i++) {
-                if(a[i].lTimer==d || a[i].rTimer==d) {
-                    a[i].listen(channel);
-                    a[i].l=a[i].received; // remember the second received key
-                }
+            for(int e=wakeFirst[d]; e!=LongSort.NIL; e=wakeNext[e]) {
+                int i=wakeStation[e];
+                a[i].listen(channel);
+                a[i].l=a[i].received; // remember the second received key
             }
             
-            for(int i=1; i<=m; i++) {
+            for(int e=wakeFirst[d]; e!=LongSort.NIL; e=wakeNext[e]) {
+                int i=wakeStation[e];
                 boolean wasLActive= (a[i].lTimer== d);
                 boolean wasRActive= (a[i].rTimer== d);
                 if(wasLActive) lUpdate(x, a[i]);
                 if(wasRActive) rUpdate(x, a[i]);
+                // the new timers are the sons of $x$, they follow $d$ in the preorder
+                if(wasLActive && d<a[i].lTimer && a[i].lTimer<=m)
+                    wake(a[i].lTimer, i);
+                if(wasRActive && d<a[i].rTimer && a[i].rTimer<=m &&
+                   !(wasLActive && a[i].lTimer==a[i].rTimer))
+                    wake(a[i].rTimer, i);
             }
             
         }
@@ -540,6 +512,74 @@ class RadioNetwork{
                     ||
                     (a[i].lPartner==null && a[i].rPartner!=null && a[i].lRank<(a[i].rPartner[0]-1)*k)
                     ;
+        
+        indexPartners(a);
+    }
+    
+    
+    // Wake-up queue of findPartners (used by the simulation only):
+    // the stations with the timer d are in the list wakeFirst[d], wakeNext[...]
+    // of the entries wakeStation[...]; the stations are added in the increasing order,
+    // since all the timers equal d are set in the slots of the father of d
+    
+    int[] wakeFirst, wakeLast;
+    int[] wakeStation, wakeNext;
+    int wakeEntries;
+    
+    void wakeReset(int m) {
+        if(wakeFirst==null || wakeFirst.length<m+1) {
+            wakeFirst=new int[m+1];
+            wakeLast=new int[m+1];
+            wakeStation=new int[2*m];
+            wakeNext=new int[2*m];
+        }
+        Arrays.fill(wakeFirst, 0, m+1, LongSort.NIL);
+        wakeEntries=0;
+    }
+    
+    void wake(int d, int i)
+    // a[i] listens in the slots of the node $d$
+    {
+        if(wakeEntries==wakeStation.length) {
+            wakeStation=Arrays.copyOf(wakeStation, 2*wakeEntries);
+            wakeNext=Arrays.copyOf(wakeNext, 2*wakeEntries);
+        }
+        int e=wakeEntries++;
+        wakeStation[e]=i;
+        wakeNext[e]=LongSort.NIL;
+        if(wakeFirst[d]==LongSort.NIL) wakeFirst[d]=e;
+        else wakeNext[wakeLast[d]]=e;
+        wakeLast[d]=e;
+    }
+    
+    
+    // Partners of the $b$-stations (used by the simulation only, built by findPartners):
+    // the $a$-stations with lPartner[0]==i or rPartner[0]==i are
+    // a[partner[partnerFirst[i]]], ..., a[partner[partnerFirst[i+1]-1]] in the increasing order
+    
+    int[] partnerFirst;
+    int[] partner;
+    
+    void indexPartners(Station[] a) {
+        int m=a.length-1;
+        if(partnerFirst==null || partnerFirst.length<m+2) {
+            partnerFirst=new int[m+2];
+            partner=new int[2*m];
+        }
+        Arrays.fill(partnerFirst, 0, m+2, 0);
+        for(int j=1; j<=m; j++) { // count the partners of b[i] in partnerFirst[i+1]
+            if(a[j].lPartner!=null) partnerFirst[a[j].lPartner[0]+1]++;
+            if(a[j].rPartner!=null && (a[j].lPartner==null || a[j].lPartner[0]!=a[j].rPartner[0]))
+                partnerFirst[a[j].rPartner[0]+1]++;
+        }
+        for(int i=1; i<=m+1; i++) partnerFirst[i]+=partnerFirst[i-1];
+        for(int j=1; j<=m; j++) { // partnerFirst[i] is the next free position for b[i]
+            if(a[j].lPartner!=null) partner[partnerFirst[a[j].lPartner[0]]++]=j;
+            if(a[j].rPartner!=null && (a[j].lPartner==null || a[j].lPartner[0]!=a[j].rPartner[0]))
+                partner[partnerFirst[a[j].rPartner[0]]++]=j;
+        }
+        for(int i=m+1; i>=1; i--) partnerFirst[i]=partnerFirst[i-1];
+        partnerFirst[0]=0;
     }
     
     
@@ -607,17 +647,13 @@ class RadioNetwork{
         int m=a.length-1;
         int k=a[1].key.length-2;
         
-        for(int j=1; j<=m; j++)
-            if( a[j].key[0]< a[j].v &&
-                (
-                (a[j].lPartner!=null && a[j].lPartner[0]==i) ||
-                (a[j].rPartner!=null && a[j].rPartner[0]==i)
-                )
-                ) {
-            int s=LongSort.NIL;
-            for(int s1=1; s==LongSort.NIL && s1<=k; s1++)
-                if(a[j].key[s1-1]<a[j].v && a[j].v<a[j].key[s1])
-                    s=s1; // a[j] contains successor of b[i].key[r]
+        for(int q=partnerFirst[i]; q<partnerFirst[i+1]; q++) // a[j] is a partner of b[i]
+            if( a[partner[q]].key[0]< a[partner[q]].v ) {
+            int j=partner[q];
+            int s=a[j].upper(a[j].v, 1, k);
+            if(s>k || !(a[j].key[s-1]<a[j].v))
+                s=LongSort.NIL;
+            // else a[j] contains successor of b[i].key[r]
             if(
                     s==LongSort.NIL &&
                     (
@@ -650,17 +686,13 @@ class RadioNetwork{
             int r=1;  // now we consider the key b[i].key[r], for r=1
             
             
-            for(int j=1; j<=m; j++)
-                if(
-                    (a[j].lPartner!=null && a[j].lPartner[0]==i) ||
-                    (a[j].rPartner!=null && a[j].rPartner[0]==i)
-                    ) {
+            for(int q=partnerFirst[i]; q<partnerFirst[i+1]; q++) { // a[j] is a partner of b[i]
+                int j=partner[q];
                 a[j].v=
                         (a[j].lPartner!=null && a[j].lPartner[0]==i)?
                             a[j].lPartner[1]: a[j].rPartner[1]; // == b[i].key[1]
-                if(a[j].split== false) // update ranks in a[j]
-                    for(int s=1; s<=k; s++)
-                        if(a[j].v < a[j].key[s]) a[j].rank[s]=(i-1)*k+r;
+                if(a[j].split== false) // update ranks in a[j] (see flushRanks)
+                    a[j].rankAbove(a[j].v, (i-1)*k+r);
                 
                 }
             
@@ -676,16 +708,12 @@ class RadioNetwork{
             for(r=2; r<=k-1; r++) {
                 newTimeSlot();
                 b[i].send(channel,b[i].key[r]);
-                for(int j=1; j<=m; j++)
-                    if(
-                        (a[j].lPartner!=null && a[j].lPartner[0]==i) ||
-                        (a[j].rPartner!=null && a[j].rPartner[0]==i)
-                        ) {
+                for(int q=partnerFirst[i]; q<partnerFirst[i+1]; q++) { // a[j] is a partner of b[i]
+                    int j=partner[q];
                     a[j].listen(channel);
                     a[j].v=a[j].received;
-                    if(a[j].split== false) // update ranks in a[j]
-                        for(int s=1; s<=k; s++)
-                            if(a[j].v<a[j].key[s]) a[j].rank[s]=(i-1)*k+r;
+                    if(a[j].split== false) // update ranks in a[j] (see flushRanks)
+                        a[j].rankAbove(a[j].v, (i-1)*k+r);
                     
                     }
                 
@@ -699,17 +727,13 @@ class RadioNetwork{
             
             
             // now r==k and we consider the key b[i].key[r].
-            for(int j=1; j<=m; j++)
-                if(
-                    (a[j].lPartner!=null && a[j].lPartner[0]==i) ||
-                    (a[j].rPartner!=null && a[j].rPartner[0]==i)
-                    ) {
+            for(int q=partnerFirst[i]; q<partnerFirst[i+1]; q++) { // a[j] is a partner of b[i]
+                int j=partner[q];
                 a[j].v=
                         (a[j].lPartner!=null && a[j].lPartner[0]==i)?
                             a[j].lPartner[2]: a[j].rPartner[2]; // == b[i].key[k]
-                if(a[j].split== false) // update ranks in a[j]
-                    for(int s=1; s<=k; s++)
-                        if(a[j].v < a[j].key[s]) a[j].rank[s]=(i-1)*k+r;
+                if(a[j].split== false) // update ranks in a[j] (see flushRanks)
+                    a[j].rankAbove(a[j].v, (i-1)*k+r);
                 
                 }
             newTimeSlot();
@@ -717,6 +741,7 @@ class RadioNetwork{
             b[i].listen(channel);
             if(b[i].received!=LongSort.NIL) b[i].rank[r]=b[i].received;
             
+            for(int q=partnerFirst[i]; q<partnerFirst[i+1]; q++) a[partner[q]].flushRanks();
             
         }
         
@@ -735,10 +760,9 @@ class RadioNetwork{
                 for(int r=1; r<=k; r++)
                     a.rank[r]= a.lRank;
             else if(a.lPartner== null) {
-                int last=1;
-                while(a.key[last+1]<a.rPartner[1]) last++;
-                for(int r=1; r<=last; r++ )
-                    a.rank[r]=a.lRank;
+                // the last r such that r==1 or a.key[r]<a.rPartner[1]
+                int last=a.upper(a.rPartner[1]-1, 2, k+1)-1;
+                Arrays.fill(a.rank, 1, last+1, a.lRank);
             }
         }
     }
@@ -801,12 +825,23 @@ class RadioNetwork{
         
         
         
+        // the keys c[i].key[r] with idx[r]==t are sender[t], next[sender[t]], ... (until NIL),
+        // where c[i].key[r] is numbered i*(k+1)+r (used by the simulation only)
+        int[] sender=new int[2*m*k+1];
+        int[] next=new int[(2*m+1)*(k+1)];
+        Arrays.fill(sender, LongSort.NIL);
+        for(int i=2*m; i>=1; i--)
+            for(int r=k; r>=1; r--) {
+            int t=c[i].idx[r];
+            if(t<1 || t>2*m*k) continue;
+            next[i*(k+1)+r]=sender[t];
+            sender[t]=i*(k+1)+r;
+            }
+        
         for(int t=1; t<= 2*m*k; t++) {
             newTimeSlot();
-            for(int i=1; i<=2*m; i++)
-                for(int r=1; r<=k; r++)
-                    if(c[i].idx[r]==t)
-                        c[i].send(channel, c[i].key[r]);
+            for(int e=sender[t]; e!=LongSort.NIL; e=next[e])
+                c[e/(k+1)].send(channel, c[e/(k+1)].key[e%(k+1)]);
             int t1=(t-1)/k+1;
             int r=t-(t1-1)*k;
             c[t1].listen(channel);
@@ -835,189 +870,4 @@ class RadioNetwork{
                 c[i].key[r]=c[i].newKey[r];
     }
     
-}
-
-
-
-
-
-
-/////////////////////////////////////////////////////////////////////
-
-class T{
-    // auxiliary functions for the tree $T_m$ from the paper
-    
-    public static int power(int x, int y)
-    // x>0, y>=0
-    {
-        int z=1;
-        int k=1;
-        while (k<= y) {
-            k++;
-            z*=x;
-        }
-        return z;
-    }
-    
-    public static int height(int m)
-    // height of $T_m$
-    {
-        int k=0;
-        int x=1;
-        
-        while (x<m+1) {
-            k++;
-            x*=2;
-        }
-        return k;
-    }
-    
-    
-    public static int h(int m, int i)
-    // sequence h(m,i) from the paper
-    {
-        if(i==0) return m;
-        return height(h(m, i-1));
-    }
-    
-    
-    public static int g(int m, int i)
-    // the functiom g(m,i) from the paper
-    {
-        int x=h(m,i);
-        return  (m+x-1)/x;
-    }
-    
-    public static int lStar(int m)
-    // $l^*$ from the paper
-    {
-        int i=0;
-        while (h(m,i)>2) i++;
-        return i;
-        
-    }
-    
-    public static int fullSize(int h)
-    // size of full tree of height h
-    {
-        return power(2,h)-1;
-    }
-    
-    public static int missingLeaves(int m)
-    // number of rightmost missing leaves in T_m
-    {
-        return fullSize(height(m))-m;
-    }
-    
-    
-    public static int leftSubtree(int m)
-    // size of the left subtree of T_m
-    {
-        if (m<=1) return 0;
-        // m>1
-        int ml=missingLeaves(m);
-        int h=height(m)-1; // height of left subtree
-        int s=fullSize(h); // size of full subtree
-        int l=power(2,h-1); // leaves in full subtree
-        if (ml>l) s-= (ml-l); // some missing leaves are in left subtree
-        return s;
-    }
-    
-    public static int rightSubtree(int m)
-    // size of the right subtree of T_m
-    {
-        return m-1-leftSubtree(m);
-    }
-    
-    public static int root(int m)
-    // root of T_m
-    {
-        return leftSubtree(m)+1;
-    }
-    
-    
-    public static int l(int m, int x)
-    // left child of x in T_m
-    {
-        int x1=root(m); // value of current visited node
-        int m1=m; // size of visited subtree
-        while (x1!=x) {
-            if (x<x1) {
-                m1=leftSubtree(m1);
-                x1=x1-m1+root(m1)-1;
-            } else // x>x1
-            {
-                m1=rightSubtree(m1);
-                x1=x1+root(m1);
-            }
-        }
-        
-        m1=leftSubtree(m1);
-        if(m1>0) return x1-m1+root(m1)-1;
-        else return 0;
-        
-    }
-    
-    public static int r(int m, int x)
-    // right child of x in T_m
-    {
-        int x1=root(m); // value of current visited node
-        int m1=m; // size of visited subtree
-        while (x1!=x) {
-            if (x<x1) {
-                m1=leftSubtree(m1);
-                x1=x1-m1+root(m1)-1;
-            } else // x>x1
-            {
-                m1=rightSubtree(m1);
-                x1=x1+root(m1);
-            }
-        }
-        
-        m1=rightSubtree(m1);
-        if(m1>0) return x1+root(m1);
-        else return 0;
-        
-    }
-    
-    public static int p(int m, int x)
-    // preorder index of x in T_m
-    {
-        // we search x in binary heap
-        if(x==0) return 0; // NILs are indexe arbitrarily
-        int i=1; // we start from the root
-        int x1=root(m); // value of current visited node
-        int m1=m; // size of visited subtree
-        while (x1!=x) {
-            if (x<x1) {
-                i=2*i; // left child in the binary heap
-                m1=leftSubtree(m1);
-                x1=x1-m1+root(m1)-1;
-            } else // x>x1
-            {
-                i=2*i+1; // right child in the binary heap
-                m1=rightSubtree(m1);
-                x1=x1+root(m1);
-            }
-        }
-        return i;
-        
-    }
-    
-    
-    public static int pReverse(int m, int y)
-    // y>=1 is postorder number of node in T_m; return inorder number
-    {
-        if(y==1) return root(m);
-        else {
-            if(y%2 == 0) return l(m, pReverse(m, y/2));
-            else return r(m, pReverse(m, y/2));
-        }
-    }
-    
-    
-    
-}
-
-
-
+}
\ No newline at end of file
@@ -0,0 +1,1551 @@
+/**
+ *
+ *    Naive simulations of  merging and merge-sort algorithms in
+ *    the single-hop radio network
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+/**
+ *
+ * This program is a naive simulation of the
+ * (single channel versions of) merging and merge-sort algorithms 
+ * described in the DELIS technical report:
+ * 
+ *    M.Kik "Merging and Merge-sort in a Single-hop Radio Network".
+ *    DELIS-TR-0050 (http://delis.upb.de/paper/DELIS-TR-0050.pdf)
+ *
+ * It is intended to verify the correctness and demonstrate implementability
+ * of the algorithms.
+ * This source file also explains some technical details that were skipped
+ * in the technical report.
+ *
+ * The user may select the algorithm to be simulated, the data size,
+ * the seed and the distribution of the keys and the number of repetitions
+ * with the arguments of the program, for example:
+ *
+ *    java -jar single-hop-rn.jar mergesort -a MergeSort1 -n 4096 -seed 1 -d random -reps 3
+ *
+ * The names of the algorithms are printed by:
+ *
+ *    java -jar single-hop-rn.jar mergesort -list
+ * The results are printed as tab separated values.
+ *
+ * Merging algorithms are implemented in the methods:
+ *   Merge() 
+ *   Merge1()
+ *   Merge2()
+ *
+ * Merge-sort algorithms are implemented in the methods:
+ *   MergeSort()
+ *   MergeSort1()
+ *   MergeSort2()
+ *
+ * The sequences of sensors are given by the ranges of their numbers 1..n:
+ * the pair (s,m) denotes the sensors s+1 ... s+m.
+ * Merge-sort merges the sequences bottom-up without copying them.
+ *
+ * The algorithms are implemented once in the class Network, which accesses
+ * the variables of the sensors by the methods of its subclasses:
+ * RadioNetwork stores them in the objects of the class Sensor and
+ * CompactRadioNetwork in parallel tables of integers
+ * (it is intended for large data sizes).
+ *
+ *
+ *
+ * Note that this simulation may be very slow for large data sizes.
+ * This is due to the sequential simulation of parallel listening of single message.
+ * The sensors that should be active in given time slot are not found
+ * by exhaustive checking: they are woken up by the class rn.core.Timer.
+ *
+ */
+
+
+package rn.mergesort;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import rn.core.Energy;
+import rn.core.Launcher;
+import rn.core.Timer;
+import rn.core.TraceSink;
+import rn.core.TreeTable;
+
+public class RadioNetwork extends Network
+// The network of the sensors stored in the table sensor[]
+// (the algorithms are in the class Network)
+{
+    Sensor[] sensor;
+    Timer<Sensor> timer; // wakes up the listeners
+    
+    RadioNetwork(int n) {
+        super(n);
+        timer=new Timer<Sensor>();
+        sensor= new Sensor[n+1]; // tables are indexed from 1
+        int i;
+        for(i=1; i<=n; i++) sensor[i]=new Sensor(i);
+    }
+    
+    RadioNetwork(RadioNetwork rn)
+    // the network of the same sensors with its own channel, clock and timer
+    {
+        super(rn.n);
+        timer=new Timer<Sensor>();
+        sensor=rn.sensor;
+    }
+    
+    Network part() {
+        return new RadioNetwork(this);
+    }
+    
+    
+    // Access to the variables of the sensors
+    
+    int key(int s) { return sensor[s].key; }
+    int rank(int s) { return sensor[s].rank; }
+    int group(int s) { return sensor[s].group; }
+    int key1(int s) { return sensor[s].key1; }
+    int rank1(int s) { return sensor[s].rank1; }
+    int group1(int s) { return sensor[s].group1; }
+    int timer(int s) { return sensor[s].timer; }
+    int idx(int s) { return sensor[s].idx; }
+    int newkey(int s) { return sensor[s].newkey; }
+    boolean winner(int s) { return sensor[s].winner; }
+    
+    void setKey(int s, int x) { sensor[s].key=x; }
+    void setRank(int s, int x) { sensor[s].rank=x; }
+    void setGroup(int s, int x) { sensor[s].group=x; }
+    void setKey1(int s, int x) { sensor[s].key1=x; }
+    void setRank1(int s, int x) { sensor[s].rank1=x; }
+    void setGroup1(int s, int x) { sensor[s].group1=x; }
+    void setTimer(int s, int x) { sensor[s].timer=x; }
+    void setIdx(int s, int x) { sensor[s].idx=x; }
+    void setNewkey(int s, int x) { sensor[s].newkey=x; }
+    void setWinner(int s, boolean x) { sensor[s].winner=x; }
+    
+    int le(int s) { return sensor[s].le; }
+    int se(int s) { return sensor[s].se; }
+    
+    
+    // Universal methods
+    
+    // the received message is copied from the channel to the sensor
+    
+    void send(int s, int x) {
+        sensor[s].send(x, channel);
+    }
+    
+    void send(int s, int x0, int x1, int x2, int x3) {
+        sensor[s].send(x0, x1, x2, x3, channel);
+    }
+    
+    void listen(int s) {
+        sensor[s].listen(channel);
+    }
+    
+    int rcvdState(int s) {
+        return sensor[s].rcvdState;
+    }
+    
+    int rcvdMsg(int s, int i) {
+        return sensor[s].rcvdMsg[i];
+    }
+    
+    void reset(int n) {
+        timer.reset(n);
+    }
+    
+    void set(int s, int t) {
+        timer.set(sensor[s], t);
+    }
+    
+    int pop(int t) {
+        Sensor s=timer.pop(t);
+        return (s==null)? 0 : s.id;
+    }
+    
+    
+    // main() METHOD
+    
+    // The algorithms are registered in the table ALGORITHMS by their names.
+    // A simulation gets the keys key[1..n] of the sensors 1 ... n and
+    // the number of channels and returns the results:
+    // {clock, maximal LE, maximal SE, 1 if the keys are sorted else 0, sum of the keys}.
+    // The merging algorithms merge the sequences of the sensors
+    // 1 ... n/2 and n/2+1 ... n (the keys of each half are sorted first).
+    
+    interface Simulation {
+        long[] run(int[] key, int channels);
+    }
+    
+    static final Map<String,Simulation> ALGORITHMS=new LinkedHashMap<String,Simulation>();
+    
+    static {
+        String[] suffix={"", "1", "2"};
+        String[] prefix={"", "Compact"};
+        for(int c=0; c<2; c++)
+            for(int i=0; i<3; i++) {
+                final boolean compact=(c==1);
+                final int variant=i;
+                ALGORITHMS.put(prefix[c]+"Merge"+suffix[i], (key, k) -> {
+                    Network RN=network(key, compact);
+                    int m=(key.length-1)/2;
+                    RN.Merge(variant, 0,m,m);
+                    return RN.results();
+                });
+                ALGORITHMS.put(prefix[c]+"MergeSort"+suffix[i], (key, k) -> {
+                    Network RN=network(key, compact);
+                    RN.MergeSort(variant, 0,key.length-1);
+                    return RN.results();
+                });
+                ALGORITHMS.put(prefix[c]+"ParallelMergeSort"+suffix[i], (key, k) -> {
+                    Network RN=network(key, compact);
+                    RN.ParallelMergeSort(variant, 0,key.length-1, k>1);
+                    return RN.results();
+                });
+                ALGORITHMS.put(prefix[c]+"MultiChannelMergeSort"+suffix[i], (key, k) -> {
+                    Network RN=network(key, compact);
+                    RN.MultiChannelMergeSort(variant, 0,key.length-1, k);
+                    return RN.results();
+                });
+            }
+    }
+    
+    static Network network(int[] key, boolean compact)
+    // the network of the sensors 1 ... n with the keys key[1..n]:
+    // a RadioNetwork or a CompactRadioNetwork
+    {
+        if(compact) return CompactRadioNetwork.network(key);
+        int n=key.length-1;
+        RadioNetwork RN=new RadioNetwork(n);
+        int i;
+        for(i=1; i<=n; i++) RN.sensor[i].key=key[i];
+        return RN;
+    }
+    
+    
+    public static int[] keys(int n, long seed, String distribution, boolean merging)
+    // The pairwise distinct keys key[1..n] of the distribution:
+    //   random   - in random order,
+    //   sorted   - in increasing order,
+    //   reversed - in decreasing order.
+    // For merging the keys of each half are sorted: the halves interleave
+    // randomly, the first half is less (sorted) or greater (reversed).
+    {
+        Random random=new Random(seed);
+        int[] key=new int[n+1];
+        int i;
+        for(i=1; i<=n; i++) key[i]=(n+1)*random.nextInt(10000)+i; // distinct keys
+        
+        if(distribution.equals("sorted") || distribution.equals("reversed")) {
+            Arrays.sort(key, 1, n+1);
+            if(distribution.equals("reversed"))
+                for(i=1; i<=n/2; i++) {
+                    int x=key[i];
+                    key[i]=key[n+1-i];
+                    key[n+1-i]=x;
+                }
+        }
+        else if(!distribution.equals("random"))
+            throw new IllegalArgumentException("unknown distribution: "+distribution);
+        
+        if(merging) {
+            Arrays.sort(key, 1, n/2+1);
+            Arrays.sort(key, n/2+1, n+1);
+        }
+        return key;
+    }
+    
+    
+    public static void main(String[] args)
+    throws Exception
+    // java rn.mergesort.RadioNetwork [-a algorithm] [-n n] [-seed seed] [-d distribution]
+    //                   [-reps repetitions] [-k channels] [-list]
+    // (see rn.core.Launcher)
+    {
+        Launcher launcher=new Launcher("java rn.mergesort.RadioNetwork", T.power(2,11),
+        "number of sensors, a power of two");
+        launcher.distribution("random");
+        launcher.distribution("sorted");
+        launcher.distribution("reversed");
+        launcher.option("-k", "channels", 1, 1,
+        "number of channels of MultiChannelMergeSort;\n"+
+        "                   ParallelMergeSort uses separate channels if it is > 1");
+        launcher.check((algorithm, n, option) -> {
+            if((n&(n-1))!=0) throw new IllegalArgumentException("n should be a power of two: "+n);
+        });
+        
+        for(String name: ALGORITHMS.keySet()) {
+            Simulation simulation=ALGORITHMS.get(name);
+            boolean merging=(name.startsWith("Merge") || name.startsWith("CompactMerge"))
+            && !name.contains("MergeSort");
+            launcher.put(name, (n, seed, distribution, option) -> {
+                int[] key=keys(n, seed, distribution, merging);
+                long sum=0;
+                int i;
+                for(i=1; i<=n; i++) sum+=key[i];
+                
+                long[] r=simulation.run(key, option[0]);
+                return new long[] {r[0], r[1], r[2], (r[3]==1 && r[4]==sum)? 1:0};
+            });
+        }
+        
+        launcher.algorithm("MergeSort");
+        launcher.main(args);
+    }
+    
+    
+    
+}
+
+
+abstract class Network
+// The algorithms of RadioNetwork and CompactRadioNetwork.
+// The sensors are given by their numbers 1..n and their variables
+// (see the class Sensor) are accessed by the methods key(s), setKey(s,x), ...
+// implemented by the subclasses, which store the variables in the
+// objects of the class Sensor or in the parallel tables of integers.
+{
+    final int n; // the number of the sensors
+    Channel channel;
+    int clock;
+    
+    Network(int n)
+    // the network of n sensors with a new channel, traced separately
+    // (see rn.core.TraceSink)
+    {
+        this.n=n;
+        clock=1;
+        channel=new Channel();
+        channel.trace=TraceSink.open(clock);
+    }
+    
+    
+    // Access to the variables of the sensor s
+    
+    abstract int key(int s);
+    abstract int rank(int s);
+    abstract int group(int s);
+    abstract int key1(int s);
+    abstract int rank1(int s);
+    abstract int group1(int s);
+    abstract int timer(int s);
+    abstract int idx(int s);
+    abstract int newkey(int s);
+    abstract boolean winner(int s);
+    
+    abstract void setKey(int s, int x);
+    abstract void setRank(int s, int x);
+    abstract void setGroup(int s, int x);
+    abstract void setKey1(int s, int x);
+    abstract void setRank1(int s, int x);
+    abstract void setGroup1(int s, int x);
+    abstract void setTimer(int s, int x);
+    abstract void setIdx(int s, int x);
+    abstract void setNewkey(int s, int x);
+    abstract void setWinner(int s, boolean x);
+    
+    abstract int le(int s);
+    abstract int se(int s);
+    
+    
+    // Universal methods
+    
+    // the sensor s sends or listens in the current time slot;
+    // rcvdState(s) and rcvdMsg(s,i) are the state of the channel and
+    // the message received by s when it listened in the current time slot
+    
+    abstract void send(int s, int x);
+    abstract void send(int s, int x0, int x1, int x2, int x3);
+    abstract void listen(int s);
+    abstract int rcvdState(int s);
+    abstract int rcvdMsg(int s, int i);
+    
+    void nextSlot() {
+        channel.clean();
+        clock++;
+    }
+    
+    // the listeners are woken up as by the class rn.core.Timer:
+    // set(s,t) schedules the sensor s for the slot t and pop(t) returns
+    // the sensors scheduled for the slot t one by one (0 if there are none)
+    
+    abstract void reset(int n);
+    abstract void set(int s, int t);
+    abstract int pop(int t);
+    
+    abstract Network part();
+    // the network of the same sensors with its own channel, clock and timer:
+    // it simulates a part of an algorithm on disjoint sensors
+    
+    
+    // Algorithms
+    
+    public void Rank(int a, int b, int m)
+    // Rank sensors a+1 ... a+m in the sequence <b+1 .. b+m>
+    {
+        int i;
+        reset(m+1);
+        for(i=1; i<= m; i++) {
+            setTimer(a+i, 1);
+            setRank(a+i, 0);
+            set(a+i, 1);
+        }
+    
+    
+        TreeTable t=T.table(m);
+        int d,x,s;
+        for(d=1; d<= m; d++) {
+            x=t.pReverse(d);
+    
+            // SEND
+            send(b+x, key(b+x));
+    
+            // RECEIVE
+            while((s=pop(d))!=0) {
+                listen(s);
+                if (key(s)<rcvdMsg(s,0))
+                    setTimer(s, t.p(t.l(x)));
+                else {
+                    setTimer(s, t.p(t.r(x)));
+                    setRank(s, x);
+                }
+                if(timer(s)!=0) set(s, timer(s));
+            }
+    
+            nextSlot();
+        }
+    
+    }
+    
+    
+    // Merging with energetic cost: \lg m+3
+    
+    public void Merge(int a, int b, int m) {
+        Rank(a,b,m);
+        Rank(b,a,m);
+    
+        int i;
+        for(i=1; i<=m; i++) {
+            setIdx(a+i, i+rank(a+i));
+            setIdx(b+i, i+rank(b+i));
+        }
+    
+        Route(a,b,m);
+    
+    }
+    
+    
+    // Permutation routing of the concatenation c of the sequences a and b:
+    // c(i) sends its key in the time slot idx(c(i))
+    // and c(t) receives the key sent in the time slot t
+    
+    public void Route(int a, int b, int m) {
+        int i,t,s;
+    
+        // the senders are found by the timer instead of searching all c(i) in each slot
+        reset(2*m+1);
+        for(i=1; i<=2*m; i++) {
+            s=c(a,b,m,i);
+            if(idx(s)>=1 && idx(s)<=2*m) set(s, idx(s));
+        }
+    
+        for(t=1; t<=2*m; t++) {
+            // SEND
+            while((s=pop(t))!=0) {
+                send(s, key(s));
+            }
+    
+            // RECEIVE
+            s=c(a,b,m,t);
+            listen(s);
+            if(rcvdState(s)!=Channel.MESSAGE)
+                throw new IllegalStateException("Route: no message in the time slot "+t+" of "+2*m);
+            setNewkey(s, rcvdMsg(s,0));
+    
+            nextSlot();
+        }
+    
+        for(i=1; i<=m; i++) {
+            setKey(a+i, newkey(a+i));
+            setKey(b+i, newkey(b+i));
+        }
+    
+    }
+    
+    
+    public void MergeSort(int s, int m)
+    // Sort the sensors s+1 ... s+m bottom-up: in the round w the sorted
+    // sequences of length w are merged in pairs (m is a power of two)
+    {
+        int w,j;
+        for(w=1; w<m; w*=2)
+            for(j=s; j<s+m; j+=2*w) Merge(j, j+w, w);
+    }
+    
+    
+    /// Regroup
+    
+    public void Regroup(int i, int c1, int d1, int m) {
+        int j,l,s;
+        int hi=T.h(m,i), gi=T.g(m,i);       // h(m,i) and g(m,i)
+        int hi1=T.h(m,i-1), gi1=T.g(m,i-1); // h(m,i-1) and g(m,i-1)
+        TreeTable t=T.table(hi1);           // the tree $T_{h(m,i-1)}$
+    
+        // c[j][k] is the sensor of the concatenation of c1 and d1
+        // at the position alpha(m,i,j,k) and d[g][x] is the sensor
+        // d1+alpha(m,i-1,g,x) if alpha(m,i-1,g,x)<=m
+    
+    
+        // Phase 1
+    
+        for(j=1; j<=gi; j++) {
+            s=c(c1,d1,m,(j-1)*hi+1);
+            setGroup1(s, group(s));
+            setKey1(s, key(s));
+            setTimer(s, 1);
+            setRank1(s, 0);
+        }
+    
+        // the listener c[j][l] is woken up in the slot (timer, group1),
+        // which is the entry timer*(gi1+1)+group1 of the timer
+        int g,v;
+        reset((hi1+1)*(gi1+1));
+        for(l=1; l<= hi; l++) {
+            for(j=1; j<= gi; j++) {
+                s=c(c1,d1,m,(j-1)*hi+l);
+                if(timer(s)>=1 && timer(s)<=hi1
+                && group1(s)>=1 && group1(s)<=gi1)
+                    set(s, timer(s)*(gi1+1)+group1(s));
+            }
+    
+            for(v=T.power(2,l-1); v<= Math.min(T.power(2,l)-1,hi1); v++)
+                for(g=1; g<=gi1; g++) {
+                    // SEND
+                    int x=t.pReverse(v);
+                    int alpha=(g-1)*hi1+x; // alpha(m,i-1,g,x)
+                    if(alpha<=m) {
+                        send(d1+alpha, key(d1+alpha));
+                    }
+    
+                    // RECEIVE
+                    while((s=pop(v*(gi1+1)+g))!=0) {
+                        listen(s);
+                        if( rcvdState(s) == Channel.SILENCE ||
+                        key1(s)<rcvdMsg(s,0) ) {
+                            setTimer(s, t.p(t.l(x)));
+                        }
+                        else {
+                            setTimer(s, t.p(t.r(x)));
+                            setRank1(s, alpha);
+                        }
+                    }
+    
+                    nextSlot();
+    
+                }
+    
+            // transfer task to the next slave
+    
+            if(l<= hi-1)
+                for(j=1; j<=gi; j++) {
+                    s=c(c1,d1,m,(j-1)*hi+l);
+                    int s1=c(c1,d1,m,(j-1)*hi+l+1);
+                    // SEND
+                    send(s, timer(s), rank1(s), group1(s), key1(s));
+    
+                    // RECEIVE
+                    listen(s1);
+                    setTimer(s1,  rcvdMsg(s1,0));
+                    setRank1(s1,  rcvdMsg(s1,1));
+                    setGroup1(s1, rcvdMsg(s1,2));
+                    setKey1(s1,   rcvdMsg(s1,3));
+    
+                    nextSlot();
+                }
+    
+        } // for
+    
+    
+        // Phase 2
+    
+        for(j=1; j<= gi; j++) setWinner(c(c1,d1,m,(j-1)*hi+1), true);
+    
+        for(j=1; j<=gi; j++) {
+            s=c(c1,d1,m,(j-1)*hi+1);
+            // SEND
+            int e=c(c1,d1,m,(j-1)*hi+hi);
+            send(e, rank1(e));
+    
+            // RECEIVE
+            listen(s);
+            setRank(s, rcvdMsg(s,0));
+    
+            if(j>1) {
+                int s1=c(c1,d1,m,(j-2)*hi+1);
+                listen(s1);
+                if(rank(s1)==rcvdMsg(s1,0)) setWinner(s1, false);
+            }
+    
+            nextSlot();
+        }
+    
+    
+        // Phase 3
+    
+        // the winner c[j][1] sends j in the slot rank+1
+        // (it is woken up by the timer instead of checking all c[j][1] in each slot)
+        reset(m+1);
+        for(j=1; j<=gi; j++) {
+            s=c(c1,d1,m,(j-1)*hi+1);
+            if(winner(s) && rank(s)>=0 && rank(s)<=m-1) set(s, rank(s)+1);
+        }
+    
+        for(l=1; l<=m; l++) setGroup(d1+l, -1); // -1 == NIL
+        setGroup(d1+1, 0);
+    
+        for(l=1; l<=m; l++) {
+            // SEND
+            while((s=pop(l))!=0) {
+                int alpha=(s>c1 && s<=c1+m)? s-c1 : s-d1+m; // s==c[j][1]
+                send(s, (alpha-1)/hi+1); // j
+            }
+    
+            // RECEIVE
+            s=d1+l;
+            listen(s);
+            if(rcvdState(s)!= Channel.SILENCE) {
+                setGroup(s, rcvdMsg(s,0));
+            }
+    
+            nextSlot();
+        }
+    
+    
+        // Phase 4
+        for(l=1; l<= m-1; l++) {
+            // SEND
+            send(d1+l, group(d1+l));
+    
+            // RECEIVE
+            s=d1+l+1;
+            if(group(s) == -1) {
+                listen(s);
+                setGroup(s, rcvdMsg(s,0));
+            }
+    
+            nextSlot();
+        }
+    
+    }
+    
+    int c(int c1, int d1, int m, int alpha)
+    // the number of the sensor of the concatenation of the sequences c1 and d1
+    // at the position alpha
+    {
+        if(alpha<=m) return c1+alpha;
+        else return d1+alpha-m;
+    }
+    
+    
+    // Rank1
+    
+    public void Rank1(int a, int b, int m) {
+        int i,k;
+        int h1=T.h(m,1), g1=T.g(m,1); // h(m,1) and g(m,1)
+        TreeTable t=T.table(h1);       // the tree $T_{h(m,1)}$
+        for(i=1; i<=m; i++) setGroup(b+i, 1);
+    
+        Regroup(1,b,a,m);
+    
+    
+        // Phase B
+    
+        // b1[g][x] is the sensor b+alpha(m,1,g,x) if alpha(m,1,g,x)<=m
+    
+        int g,l,s;
+    
+    
+        // the listener a+l is woken up in the slot (group, timer),
+        // which is the entry group*(h1+1)+timer of the timer
+        reset((g1+1)*(h1+1));
+        for(l=1; l<= m; l++) {
+            s=a+l;
+            setRank(s, 0);
+            setTimer(s, 1);
+            if(group(s)>=1 && group(s)<=g1)
+                set(s, group(s)*(h1+1)+1);
+        }
+    
+        for(g=1; g<=g1; g++) {
+            for(k=1; k<=h1; k++) {
+    
+                // SEND
+                int x=t.pReverse(k);
+                int alpha=(g-1)*h1+x; // alpha(m,1,g,x)
+                if(alpha<=m) {
+                    send(b+alpha, key(b+alpha));
+                }
+    
+                //RECEIVE
+                while((s=pop(g*(h1+1)+k))!=0) {
+                    listen(s);
+                    if(rcvdState(s)==Channel.SILENCE
+                    || key(s)<rcvdMsg(s,0)) {
+                        setTimer(s, t.p(t.l(x)));
+                    }
+                    else {
+                        setRank(s, alpha);
+                        setTimer(s, t.p(t.r(x)));
+                    }
+                    if(timer(s)!=0) set(s, g*(h1+1)+timer(s));
+                }
+    
+                nextSlot();
+            }
+        }
+    
+    
+    }
+    
+    
+    
+    //  Merging with energetic cost: O(\lg\lg m)
+    
+    public void Merge1(int a, int b, int m) {
+        Rank1(a,b,m);
+        Rank1(b,a,m);
+    
+        int i;
+        for(i=1; i<=m; i++) {
+            setIdx(a+i, i+rank(a+i));
+            setIdx(b+i, i+rank(b+i));
+        }
+    
+        Route(a,b,m);
+    
+    }
+    
+    
+    public void MergeSort1(int s, int m)
+    // Sort the sensors s+1 ... s+m bottom-up with Merge1 (m is a power of two)
+    {
+        int w,j;
+        for(w=1; w<m; w*=2)
+            for(j=s; j<s+m; j+=2*w) Merge1(j, j+w, w);
+    }
+    
+    
+    
+    
+    // Rank2
+    
+    public void Rank2(int a, int b, int m) {
+        int i;
+    
+        for(i=1; i<=m; i++) {
+            setGroup(a+i, 1);
+        }
+    
+    
+        for(i=1; i<= (T.lStar(m)+1)/2+1; i++) {
+            Regroup(2*i-1, a,b,m);
+            Regroup(2*i, b,a,m);
+        }
+    
+    
+        if(m>=2) {
+            lastRanking(a,b,m);
+            lastRanking(b,a,m);
+        }
+    
+    }
+    
+    void lastRanking(int a, int b, int m)
+    // the sensor b+j listens in the slots 2*group-1 and 2*group,
+    // when a+2*group-1 and a+2*group send
+    {
+        int i,j,s;
+        reset(m+2);
+        for(j=1; j<=m; j++) {
+            s=b+j;
+            setRank(s, 0);
+            if(group(s)>=1 && 2*group(s)-1<=m)
+                set(s, 2*group(s)-1);
+        }
+    
+        for(i=1; i<=m; i++) {
+            // SEND
+            send(a+i, key(a+i));
+    
+            // RECEIVE
+            while((s=pop(i))!=0) {
+                listen(s);
+                if(key(s)>rcvdMsg(s,0))
+                    setRank(s, i);
+                if(i%2==1) set(s, i+1);
+            }
+    
+            nextSlot();
+        }
+    }
+    
+    
+    // Merging with energetic cost: O(\lg* m)
+    
+    public void Merge2(int a, int b, int m) {
+        Rank2(a,b,m);
+    
+        int i;
+        for(i=1; i<=m; i++) {
+            setIdx(a+i, i+rank(a+i));
+            setIdx(b+i, i+rank(b+i));
+        }
+    
+        Route(a,b,m);
+    
+    }
+    
+    
+    public void MergeSort2(int s, int m)
+    // Sort the sensors s+1 ... s+m bottom-up with Merge2 (m is a power of two)
+    {
+        int w,j;
+        for(w=1; w<m; w*=2)
+            for(j=s; j<s+m; j+=2*w) Merge2(j, j+w, w);
+    }
+    // Parallel simulation of merge-sort
+    
+    // The halves of a merge-sort consist of disjoint sensors, so their
+    // sorts are simulated by separate tasks of the fork-join pool,
+    // each in its own network of the same sensors (see part()).
+    // The time slots of the two halves are added if they share a single
+    // channel, or the maximum is taken if they use separate channels.
+    // With a single channel the clock is the same as in the sequential
+    // simulation and in both cases the energy of every sensor is the same.
+    
+    public void MergeSort(int variant, int s, int m)
+    // MergeSort, MergeSort1 or MergeSort2 for variant = 0, 1 or 2
+    {
+        switch(variant) {
+        case 0: MergeSort(s,m); break;
+        case 1: MergeSort1(s,m); break;
+        default: MergeSort2(s,m);
+        }
+    }
+    
+    public void Merge(int variant, int a, int b, int m)
+    // Merge, Merge1 or Merge2 for variant = 0, 1 or 2
+    {
+        switch(variant) {
+        case 0: Merge(a,b,m); break;
+        case 1: Merge1(a,b,m); break;
+        default: Merge2(a,b,m);
+        }
+    }
+    
+    public void ParallelMergeSort(int variant, int s, int m, boolean multiChannel) {
+        clock+=ForkJoinPool.commonPool().invoke(new SortTask(this, variant, s, m, multiChannel));
+    }
+    
+    static class SortTask extends RecursiveTask<Integer>
+    // returns the number of time slots of the sort of the sensors s+1 ... s+m
+    {
+        private static final long serialVersionUID=1L;
+        
+        static final int GRAIN=1024; // smaller sorts are not split into tasks
+        
+        final Network network;
+        final int variant, s, m;
+        final boolean multiChannel;
+        
+        SortTask(Network network, int variant, int s, int m, boolean multiChannel) {
+            this.network=network;
+            this.variant=variant;
+            this.s=s;
+            this.m=m;
+            this.multiChannel=multiChannel;
+        }
+        
+        protected Integer compute() {
+            Network part=network.part();
+            if(m<=GRAIN) return sort(part, s, m);
+            
+            SortTask left=new SortTask(network, variant, s, m/2, multiChannel);
+            SortTask right=new SortTask(network, variant, s+m/2, m/2, multiChannel);
+            left.fork();
+            int r=right.compute();
+            int l=left.join();
+            
+            return merge(part, s, m, l, r);
+        }
+        
+        int sort(Network part, int s, int m)
+        // the sort of a small part in one task: the time slots of its halves
+        // are combined in the same way as by compute() down to m = 1
+        {
+            if(m<=1) return 0;
+            int l=sort(part, s, m/2);
+            int r=sort(part, s+m/2, m/2);
+            return merge(part, s, m, l, r);
+        }
+        
+        int merge(Network part, int s, int m, int l, int r)
+        // merges the sorted halves of s+1 ... s+m sorted in l and r time slots
+        {
+            int start=part.clock;
+            part.Merge(variant, s, s+m/2, m/2);
+            return (multiChannel? Math.max(l,r) : l+r) + part.clock-start;
+        }
+    }
+    
+    
+    // Simulation of merge-sort in the network with k channels
+    
+    // The merges of one round of MergeSort consist of disjoint sensors.
+    // The merge j of the round is simulated on the channel j mod k, in the
+    // network part[j mod k] of the same sensors, and the channels are
+    // simulated in parallel. A merge starts when its channel is free and
+    // both its sequences are sorted. The clock of a channel is the time slot
+    // in which the channel becomes free, and the time of the sort is
+    // the makespan: the maximum of the clocks of the channels.
+    // The energy of every sensor is the same as with a single channel.
+    
+    public int[] MultiChannelMergeSort(int variant, int s, int m, int k)
+    // returns the clocks of the k channels
+    {
+        Network[] part=new Network[k];
+        int[] free=new int[k];    // the clocks of the channels
+        int[] done=new int[m+1];  // the slot in which the sequence j of the round is sorted
+        int[] time=new int[m/2+1]; // the time of the merge j of the round
+        int c,j,w;
+        for(c=0; c<k; c++) part[c]=part();
+        
+        for(w=1; w<m; w*=2) {
+            final int width=w, merges=m/(2*w);
+            IntStream.range(0,k).parallel().forEach(channel -> {
+                for(int i=channel; i<merges; i+=k) {
+                    int start=part[channel].clock;
+                    part[channel].Merge(variant, s+2*i*width, s+(2*i+1)*width, width);
+                    time[i]=part[channel].clock-start;
+                }
+            });
+            
+            for(j=0; j<merges; j++) {
+                c=j%k;
+                free[c]=Math.max(free[c], Math.max(done[2*j], done[2*j+1]))+time[j];
+                done[j]=free[c];
+            }
+        }
+        
+        clock+=done[0];
+        return free;
+    }
+    
+    
+    /// AUXILIARY METHODS
+    
+    
+    // Generating sequence of random pairwise distinct keys
+    
+    public void randomKeys(int s, int n, long seed)
+    // keys of the sensors s+1 ... s+n
+    {
+        Random random=new Random(seed);
+        int i;
+        for(i=1; i<=n; i++)
+            setKey(s+i, (n+1)*random.nextInt(10000)+i); // distinct keys
+        
+    }
+    
+    
+    public void randomSortedKeys(int s, int n, int suffix, long seed)
+    // Suffix (0 or 1) can be used to ensure that all keys in one sequence are
+    // even and in the other are odd
+    {
+        Random random=new Random(seed);
+        int i;
+        setKey(s+1, 2*random.nextInt(10000)+suffix);
+        for(i=2; i<=n; i++)
+            setKey(s+i, key(s+i-1)+2*random.nextInt(10000)+2); // distinct keys
+        
+    }
+    
+    
+    public long sumKeys(int s, int n) {
+        long x=0;
+        int i;
+        for(i=1; i<=n; i++) x+=key(s+i);
+        return x;
+    }
+    
+    public boolean sortedKeys(int s, int n) {
+        boolean x=true;
+        int i;
+        for(i=1; x && i<=n-1; i++) x= x && (key(s+i)<key(s+i+1));
+        return x;
+    }
+    
+    public int maxSE(int s, int n) {
+        int i, x=-1;
+        for(i=1; i<=n; i++) if(se(s+i)>x) x=se(s+i);
+        return x;
+    }
+    
+    public int maxLE(int s, int n) {
+        int i, x=-1;
+        for(i=1; i<=n; i++) if(le(s+i)>x) x=le(s+i);
+        return x;
+    }
+    
+    long[] results()
+    // the results of the simulation of the sensors 1 ... n (see RadioNetwork.main)
+    {
+        return new long[] {clock, maxLE(0,n), maxSE(0,n), sortedKeys(0,n)? 1:0, sumKeys(0,n)};
+    }
+    
+}
+
+
+class CompactRadioNetwork extends Network
+// The network with the variables of the sensors stored
+// in parallel tables indexed by the number of the sensor 1..n
+// (the algorithms are in the class Network).
+{
+    // sensor variables as described in the paper
+    int[] key;
+    int[] rank;
+    int[] group;
+    int[] key1;  // key'
+    int[] rank1; // rank'
+    int[] group1; // group'
+    int[] timer;
+    int[] idx;
+    int[] newkey;
+    boolean[] winner;
+    
+    // ENERGY used
+    int[] le; // listening
+    int[] se; // sending
+    
+    // the listeners are woken up as by the class rn.core.Timer:
+    // first[t] is the first sensor scheduled for the slot t,
+    // next[s] is the sensor scheduled after s (0 is NIL)
+    int[] first;
+    int[] next;
+    
+    CompactRadioNetwork(int n) {
+        super(n);
+        // tables are indexed from 1
+        key=new int[n+1];
+        rank=new int[n+1];
+        group=new int[n+1];
+        key1=new int[n+1];
+        rank1=new int[n+1];
+        group1=new int[n+1];
+        timer=new int[n+1];
+        idx=new int[n+1];
+        newkey=new int[n+1];
+        winner=new boolean[n+1];
+        le=new int[n+1];
+        se=new int[n+1];
+        first=new int[1];
+        next=new int[n+1];
+    }
+    
+    CompactRadioNetwork(CompactRadioNetwork cn)
+    // the network of the same sensors with its own channel, clock and timer;
+    // next[] is shared, since a sensor is scheduled only by the network
+    // simulating its part
+    {
+        super(cn.n);
+        key=cn.key;
+        rank=cn.rank;
+        group=cn.group;
+        key1=cn.key1;
+        rank1=cn.rank1;
+        group1=cn.group1;
+        timer=cn.timer;
+        idx=cn.idx;
+        newkey=cn.newkey;
+        winner=cn.winner;
+        le=cn.le;
+        se=cn.se;
+        first=new int[1];
+        next=cn.next;
+    }
+    
+    Network part() {
+        return new CompactRadioNetwork(this);
+    }
+    
+    static CompactRadioNetwork network(int[] key)
+    // the network of the sensors 1 ... n with the keys key[1..n]
+    {
+        int n=key.length-1;
+        CompactRadioNetwork CN=new CompactRadioNetwork(n);
+        System.arraycopy(key, 1, CN.key, 1, n);
+        return CN;
+    }
+    
+    
+    // Access to the variables of the sensors
+    
+    int key(int s) { return key[s]; }
+    int rank(int s) { return rank[s]; }
+    int group(int s) { return group[s]; }
+    int key1(int s) { return key1[s]; }
+    int rank1(int s) { return rank1[s]; }
+    int group1(int s) { return group1[s]; }
+    int timer(int s) { return timer[s]; }
+    int idx(int s) { return idx[s]; }
+    int newkey(int s) { return newkey[s]; }
+    boolean winner(int s) { return winner[s]; }
+    
+    void setKey(int s, int x) { key[s]=x; }
+    void setRank(int s, int x) { rank[s]=x; }
+    void setGroup(int s, int x) { group[s]=x; }
+    void setKey1(int s, int x) { key1[s]=x; }
+    void setRank1(int s, int x) { rank1[s]=x; }
+    void setGroup1(int s, int x) { group1[s]=x; }
+    void setTimer(int s, int x) { timer[s]=x; }
+    void setIdx(int s, int x) { idx[s]=x; }
+    void setNewkey(int s, int x) { newkey[s]=x; }
+    void setWinner(int s, boolean x) { winner[s]=x; }
+    
+    int le(int s) { return le[s]; }
+    int se(int s) { return se[s]; }
+    
+    
+    // Universal methods
+    
+    // the listeners read the message from the register of the channel
+    // in the same time slot
+    
+    void send(int s, int x) {
+        channel.insert(x);
+        if(channel.trace!=null) channel.trace.send(s, x);
+        se[s]++;
+    }
+    
+    void send(int s, int x0, int x1, int x2, int x3) {
+        channel.insert(x0, x1, x2, x3);
+        if(channel.trace!=null) channel.trace.send(s, x0, x1, x2, x3);
+        se[s]++;
+    }
+    
+    void listen(int s) {
+        if(channel.trace!=null) channel.trace.listen(s);
+        le[s]++;
+    }
+    
+    int rcvdState(int s) {
+        return channel.state;
+    }
+    
+    int rcvdMsg(int s, int i) {
+        return channel.message[i];
+    }
+    
+    void reset(int n) {
+        if(first.length<n) first=new int[n];
+        else Arrays.fill(first, 0, n, 0);
+    }
+    
+    void set(int s, int t) {
+        next[s]=first[t];
+        first[t]=s;
+    }
+    
+    int pop(int t) {
+        int s=first[t];
+        if(s!=0) first[t]=next[s];
+        return s;
+    }
+    
+}
+
+
+class Sensor extends Energy
+// sensor variables as described in the paper
+{
+    
+    
+    int key;
+    int rank;
+    int group;
+    
+    // key', rank', group'
+    int key1;
+    int rank1;
+    int group1;
+    
+    // key''
+    int key2;
+    
+    int timer;
+    int idx;
+    int newkey;
+    boolean winner;
+    
+    // Universal methods
+    
+    // the last received message is copied from the channel
+    int rcvdState; // Channel.SILENCE, Channel.MESSAGE or Channel.COLLISION
+    int[] rcvdMsg=new int[Channel.WIDTH];
+    
+    final int id; // the number of the sensor (for the trace)
+    
+    Sensor(int id) {
+        this.id=id;
+    }
+    
+    public void send(int x, Channel channel) {
+        channel.insert(x);
+        if(channel.trace!=null) channel.trace.send(id, x);
+        se++;
+    }
+    
+    public void send(int x0, int x1, int x2, int x3, Channel channel) {
+        channel.insert(x0, x1, x2, x3);
+        if(channel.trace!=null) channel.trace.send(id, x0, x1, x2, x3);
+        se++;
+    }
+    
+    public void listen(Channel channel) {
+        if(channel.trace!=null) channel.trace.listen(id);
+        rcvdState=channel.state;
+        if(rcvdState==Channel.MESSAGE)
+            System.arraycopy(channel.message, 0, rcvdMsg, 0, channel.length);
+        else Arrays.fill(rcvdMsg, 0); // nothing received: no stale message is left
+        le++;
+    }
+    
+    
+}
+
+
+class Channel {
+    
+    public static final int WIDTH=4; // message is a tuple of at most WIDTH integers
+    
+    // states of the channel in the time slot
+    public static final int SILENCE=0;
+    public static final int MESSAGE=1;
+    public static final int COLLISION=2;
+    
+    int state;
+    final int[] message=new int[WIDTH]; // register holding the message
+    int length; // length of the message
+    
+    TraceSink trace; // the trace of the time slots, null if not traced
+    
+    public void insert(int x) {
+        if (state==SILENCE) {
+            message[0]=x;
+            length=1;
+            state=MESSAGE;
+        }
+        else state=COLLISION;
+    }
+    
+    public void insert(int x0, int x1, int x2, int x3) {
+        if (state==SILENCE) {
+            message[0]=x0;
+            message[1]=x1;
+            message[2]=x2;
+            message[3]=x3;
+            length=4;
+            state=MESSAGE;
+        }
+        else state=COLLISION;
+    }
+    
+    public void clean() {
+        if(trace!=null) trace.slot();
+        state=SILENCE;
+        length=0;
+    }
+    
+}
+
+
+class T extends rn.core.T {
+    // the tree $T_m$ (see rn.core.T) and the estimations of the costs
+    // of the algorithms from the paper
+    
+    public static int alpha(int m, int i, int j, int k) {
+        return  (j-1)*T.h(m,i)+k;
+    }
+    
+    
+    //// Time estimations
+    
+    public static int RankTime(int m) {
+        return m;
+    }
+    
+    public static int MergeTime(int m) {
+        return 4*m;
+        
+        // 2*RankTime(m)+2*m
+    }
+    
+    public static int RegroupTime(int m, int i) {
+        return g(m,i-1)*h(m,i-1)+g(m,i)*h(m,i)+2*m-1;
+        
+        // Phase 1: g(m,i-1)*h(m,i-1)+g(m,i)*(h(m,i)-1)
+        // Phase 2: g(m,i)
+        // Phase 3: m
+        // Phase 4: m-1
+        
+    }
+    
+    public static int Rank1Time(int m) {
+        return 2*g(m,1)*h(m,1)+3*m-1;
+        
+        // RegroupTime(m,1): 1*m+g(m,1)*h(m,1)+2m-1
+        // Phase B:          g(m,1)*h(m,1)
+    }
+    
+    
+    public static int Merge1Time(int m) {
+        return 4*g(m,1)*h(m,1)+8*m-2;
+        
+        // 2*Rank1Time: 4*g(m,1)*h(m,1)+6*m-2;
+        // Permutation routing: 2*m
+    }
+    
+    
+    public static int Rank2Time(int m) {
+        int s=0, i;
+        
+        // iterated regrouping
+        
+        for(i=1; i<= (lStar(m)+1)/2+1; i++)
+            s+=RegroupTime(m, 2*i-1)+RegroupTime(m, 2*i);
+        
+        
+        return s+2*m;
+        // last ranking of a in b and of b in a: 2*m
+        
+    }
+    
+    
+    public static int Merge2Time(int m) {
+        return Rank2Time(m)+2*m;
+        // permutation routing: 2*m
+    }
+    
+    
+    //// Estimations of energetic cost of sending
+    
+    
+    public static int RankSE(int m) {
+        return 1;
+    }
+    
+    public static int MergeSE(int m) {
+        return 2;
+    }
+    
+    
+    
+    public static int RegroupSEd(int m,int i) {
+        
+        int d1= 1;
+        int d12=(m%h(m,i) >0)? 1:0;
+        int d3=0;
+        int d4=1;
+        
+        // System.out.println("d1="+d1+" d2="+d2);
+        
+        return d1+d12+d3+d4;
+        
+        // Phase 1
+        // Phase 2
+        // Phase 3
+        // Phase 4
+    }
+    
+    
+    public static int RegroupSEc(int m,int i) {
+        
+        int c1=1;
+        int c2=1;
+        int c3=1;
+        int c4=0;
+        
+        return c1+c2+c3+c4;
+        
+        // Phase 1
+        // Phase 2
+        // Phase 3
+        // Phase 4
+    }
+    
+    
+    
+    public static int Rank1SEa(int m) {
+        return RegroupSEd(m,1);
+        // Regroup(b,a)
+        // Phase B
+        
+    }
+    
+    
+    public static int Rank1SEb(int m) {
+        return RegroupSEc(m,1)+1 ;
+        // Regroup(b,a)
+        // Phase B
+    }
+    
+    
+    
+    
+    
+    public static int Merge1SE(int m) {
+        return Rank1SEa(m)+Rank1SEb(m)+1;
+        // Rank1(a,b)
+        // Rank1(b,a)
+        // Permutation routing: +1
+    }
+    
+    
+    /////////
+    
+    public static int Rank2SE(int m) {
+        int sa=0, sb=0, i;
+        
+        for(i=1; i<=(lStar(m)+1)/2+1; i++) {
+            sa+=RegroupSEc(m,2*i-1)+RegroupSEd(m,2*i);
+            sb+=RegroupSEd(m,2*i-1)+RegroupSEc(m,2*i);
+        }
+        
+        return Math.max(sa,sb)+1;
+        // iterated Regroup
+        // last ranking a in b and b in a: +1
+    }
+    
+    public static int Merge2SE(int m) {
+        return Rank2SE(m)+1;
+        // Rank2;
+        // permutation routing: 1
+    }
+    
+    
+    //// Estimations of energetic cost of listening    
+    
+    public static int RankLE(int m) {
+        return h(m,1);
+    }
+    
+    public static int MergeLE(int m) {
+        return h(m,1)+1;
+        // Rank(a,b):  a: h(m,1)  b:0
+        // Rank(b,a):  a: 0       b: h(m,1)
+        // Permutation routing: 1
+    }
+    
+    
+    public static int RegroupLEd(int m, int i) {
+        int d1= (m%h(m,i)>0)? 2 : 0 ;
+        int d2=0;
+        int d3=1;
+        int d4=1;
+        
+        return d1+d2+d3+d4;
+        // Phase 1:  d: 0+(2)   c: 2
+        // Phase 2:  d: 0       c: 2
+        // Phase 3:  d: 1       c: 0
+        // Phase 4:  d: 1       c: 0
+    }
+    
+    ////
+    
+    public static int RegroupLEc(int m, int i) {
+        
+        int c12=3; // splitter: 1+2 slave: 2+0
+        int c3=0;
+        int c4=0;
+        
+        return c12+c3+c4;
+        // Phase 1:
+        // Phase 2:
+        // Phase 3:
+        // Phase 4:
+    }
+    
+    
+    /////
+    
+    public static int Rank1LEa(int m) {
+        return RegroupLEd(m,1)+h(m,2);
+        // Regroup(b,a):
+        // Phase B:      a: h(2,m) b: 0
+    }
+    
+    public static int Rank1LEb(int m) {
+        return RegroupLEc(m,1);
+        // Regroup(b,a):
+        // Phase B:      a: h(2,m) b: 0
+    }
+    
+    
+    
+    
+    public static int Merge1LE(int m) {
+        return Rank1LEa(m)+Rank1LEb(m)+1;
+        // Rank1(a,b):
+        // Rank1(b,a):
+        // perm. rout.: +1
+        
+    }
+    
+    
+    ////
+    
+    
+    public static int Rank2LE(int m) {
+        int sa=0, sb=0, i;
+        
+        for(i=1; i<=(lStar(m)+1)/2+1; i++) {
+            sa+=RegroupLEc(m,2*i-1)+RegroupLEd(m,2*i);
+            sb+=RegroupLEd(m,2*i-1)+RegroupLEc(m,2*i);
+        }
+        
+        return Math.max(sa,sb)+2;
+        // iterated Regroup
+        // last ranking a in b and b in a: +2
+    }
+    
+    
+    
+    public static int Merge2LE(int m) {
+        return Rank2LE(m)+1;
+        // Rank2(a,b):
+        // Perm. rout.: +1
+        
+    }
+    
+};
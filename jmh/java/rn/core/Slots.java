@@ -0,0 +1,64 @@
+/**
+ *
+ *    Benchmarks of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.core;
+
+import java.io.*;
+
+import org.openjdk.jmh.annotations.*;
+
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Slots
+// The number of the simulated time slots, reported by JMH per second
+// next to the operations of the benchmark.
+// The simulations print their progress: the output is dropped
+// while the benchmarks are running (see quiet()).
+{
+    public long slots;
+    
+    @Setup(Level.Iteration)
+    public void clean() {
+        slots=0;
+    }
+    
+    
+    static final PrintStream out=System.out;
+    
+    public static void quiet() {
+        System.setOut(new PrintStream(new OutputStream() {
+            public void write(int b) {}
+            public void write(byte[] b, int off, int len) {}
+        }));
+    }
+    
+    public static void loud() {
+        System.setOut(out);
+    }
+    
+}
@@ -0,0 +1,93 @@
+/**
+ *
+ *    Benchmarks of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.countingrank;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import rn.core.Slots;
+
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Thread)
+public class CountingRankBenchmark
+// The algorithms of CountingRank for p stations with at most max_s keys
+// of m bits (the routing algorithms use log2(p) bits, as in CountingRank.main)
+{
+    @Param({"CountingRank", "CompressedCountingRank", "RoutePackets", "AcceleratedRouting"})
+    public String algorithm;
+    
+    @Param({"64", "256"})
+    public int p;
+    
+    @Param({"16"})
+    public int m;
+    
+    @Param({"4", "16"})
+    public int max_s;
+    
+    RadioNetwork rn;
+    long seed;
+    
+    @Setup(Level.Trial)
+    public void quiet() {
+        Slots.quiet();
+    }
+    
+    @TearDown(Level.Trial)
+    public void loud() {
+        Slots.loud();
+    }
+    
+    @Setup(Level.Invocation)
+    public void input() throws Exception {
+        boolean routing=algorithm.endsWith("Routing") || algorithm.equals("RoutePackets");
+        rn=new RadioNetwork(p, routing? Key.log2(p) : m);
+        rn.seed=++seed;
+        rn.maxK=max_s;
+        rn.routing=routing;
+        rn.reGenerateInput();
+        for(int i=0; i<rn.a.length; i++) rn.a[i].prepare();
+    }
+    
+    @Benchmark
+    public int run(Slots slots) throws Exception {
+        if(algorithm.equals("CountingRank")) rn.CountingRank(rn.a, rn.m);
+        else if(algorithm.equals("CompressedCountingRank")) rn.CompressedCountingRank(rn.a, rn.m);
+        else if(algorithm.equals("RoutePackets")) rn.RoutePackets(rn.a);
+        else rn.AcceleratedRouting(rn.a);
+        slots.slots+=rn.clock;
+        return rn.clock;
+    }
+    
+}
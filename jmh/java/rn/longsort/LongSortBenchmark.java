@@ -0,0 +1,77 @@
+/**
+ *
+ *    Benchmarks of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.longsort;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import rn.core.Slots;
+
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Thread)
+public class LongSortBenchmark
+// RadioNetwork.merge of two sequences of m stations with k keys each
+{
+    @Param({"16", "128"})
+    public int m;
+    
+    @Param({"4", "32"})
+    public int k;
+    
+    RadioNetwork rn;
+    long seed;
+    
+    @Setup(Level.Trial)
+    public void quiet() {
+        Slots.quiet();
+    }
+    
+    @TearDown(Level.Trial)
+    public void loud() {
+        Slots.loud();
+    }
+    
+    @Setup(Level.Invocation)
+    public void input() {
+        rn=new RadioNetwork(m, k, ++seed, "random");
+    }
+    
+    @Benchmark
+    public int merge(Slots slots) {
+        rn.merge(rn.a, rn.b);
+        slots.slots+=rn.clock;
+        return rn.clock;
+    }
+    
+}
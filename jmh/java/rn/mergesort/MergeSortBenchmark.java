@@ -0,0 +1,72 @@
+/**
+ *
+ *    Benchmarks of the simulations of the algorithms in
+ *    the single-hop radio network.
+ *
+ *    Copyright (C) 2004  Marcin Kik
+ *
+ *    This program is free software; you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation; either version 2 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program; if not, write to the Free Software
+ *    Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ *
+ *    The author can be reached at kik@im.pwr.wroc.pl
+ *
+ */
+
+
+package rn.mergesort;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import rn.core.Slots;
+
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Thread)
+public class MergeSortBenchmark
+// The merging and merge-sort algorithms registered in RadioNetwork.ALGORITHMS
+// for n sensors with random keys, in RadioNetwork or in CompactRadioNetwork.
+{
+    @Param({"Merge", "Merge1", "Merge2", "MergeSort", "MergeSort1", "MergeSort2"})
+    public String algorithm;
+    
+    @Param({"1024", "16384"})
+    public int n;
+    
+    @Param({"false", "true"})
+    public boolean compact;
+    
+    RadioNetwork.Simulation simulation;
+    int[] key;
+    
+    @Setup(Level.Trial)
+    public void input() {
+        simulation=RadioNetwork.ALGORITHMS.get((compact? "Compact" : "")+algorithm);
+        key=RadioNetwork.keys(n, 1, "random", !algorithm.startsWith("MergeSort"));
+    }
+    
+    @Benchmark
+    public long run(Slots slots) {
+        long[] r=simulation.run(key, 1);
+        slots.slots+=r[0]-1; // the clock starts from 1
+        return r[0];
+    }
+    
+}